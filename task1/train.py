@@ -58,6 +58,12 @@ model_info = {
     "training_r_squared": train_score,
     "generalization_gap": generalization_gap,
     "coefficients": {feature: float(coef) for feature, coef in zip(features, model.coef_)},
+    # Everything needed to score without the pickle (e.g. the Java backend's in-process scorer):
+    # prediction = intercept + sum(coef * (x - mean) / scale), with features derived as above
+    "intercept": float(model.intercept_),
+    "feature_means": {feature: float(mean) for feature, mean in zip(features, scaler.mean_)},
+    "feature_scales": {feature: float(scale) for feature, scale in zip(features, scaler.scale_)},
+    "reference_year": current_year,
 }
 
 with open('app/model_info.json', 'w') as f:
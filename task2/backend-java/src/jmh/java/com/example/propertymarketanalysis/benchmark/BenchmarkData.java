@@ -0,0 +1,67 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic housing CSVs for the benchmarks. Each size is generated once, deterministically, under
+ * {@code target/jmh-data} and reused by later forks and runs.
+ */
+final class BenchmarkData {
+
+    private static final Path DIRECTORY = Path.of("target", "jmh-data");
+
+    private BenchmarkData() {
+    }
+
+    static Path housingCsv(int rows) throws IOException {
+        Path file = DIRECTORY.resolve("housing-" + rows + ".csv").toAbsolutePath();
+        if (Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(DIRECTORY);
+        Path temp = Files.createTempFile(DIRECTORY, "housing-" + rows, ".tmp");
+        SplittableRandom random = new SplittableRandom(rows);
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write("id,square_footage,bedrooms,bathrooms,year_built,lot_size,distance_to_city_center,school_rating,price\n");
+            for (int id = 1; id <= rows; id++) {
+                int squareFootage = 600 + random.nextInt(3400);
+                int bedrooms = 1 + random.nextInt(6);
+                double bathrooms = 1 + random.nextInt(7) * 0.5;
+                int yearBuilt = 1920 + random.nextInt(105);
+                int lotSize = 1500 + random.nextInt(18000);
+                double distance = Math.round(random.nextDouble() * 300) / 10.0;
+                double schoolRating = Math.round(10 + random.nextDouble() * 90) / 10.0;
+                int price = 80_000 + squareFootage * 120 + random.nextInt(150_000);
+                writer.write(id + "," + squareFootage + "," + bedrooms + "," + bathrooms + "," + yearBuilt + ","
+                        + lotSize + "," + distance + "," + schoolRating + "," + price + "\n");
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    static String location(Path file) {
+        return "file:" + file;
+    }
+
+    /**
+     * The service as Spring wires it, minus the caching proxy.
+     */
+    static MarketAnalysisServiceImpl service(HousingDataStore housingDataStore) {
+        MarketSeriesStore seriesStore = new MarketSeriesStore();
+        return new MarketAnalysisServiceImpl(housingDataStore, seriesStore, new MarketForecaster(seriesStore),
+                MarketAnalysisServiceImpl.DEFAULT_COMPARE_PARALLELISM, MarketAnalysisServiceImpl.DEFAULT_COMPARE_TIMEOUT,
+                null);
+    }
+}
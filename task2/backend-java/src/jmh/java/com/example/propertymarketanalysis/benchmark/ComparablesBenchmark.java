@@ -0,0 +1,80 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.data.HousingNeighbors;
+import com.example.propertymarketanalysis.dto.PropertyComparables;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-10 comparables for one subject and for a bulk request of 1,000, against a k-d tree
+ * built in setup. Subjects rotate through a fixed random set so no two calls hit the same path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ComparablesBenchmark {
+
+    private static final int SUBJECTS = 1_000;
+
+    @Param({"100000", "10000000"})
+    private int rows;
+
+    private HousingNeighbors neighbors;
+    private MarketAnalysisServiceImpl service;
+    private List<PropertyFeatures> subjects;
+    private int next;
+
+    @Setup
+    public void start() throws IOException {
+        HousingDataStore housingDataStore =
+                new HousingDataStore(BenchmarkData.location(BenchmarkData.housingCsv(rows)), false, "", null);
+        neighbors = housingDataStore.neighbors();
+        service = BenchmarkData.service(housingDataStore);
+
+        SplittableRandom random = new SplittableRandom(42);
+        subjects = new ArrayList<>(SUBJECTS);
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjects.add(new PropertyFeatures(
+                    (double) random.nextInt(800, 4000),
+                    random.nextInt(1, 6),
+                    random.nextInt(2, 8) / 2.0,
+                    random.nextInt(1950, 2024),
+                    random.nextInt(2000, 15000),
+                    random.nextDouble(0.5, 30.0),
+                    random.nextDouble(3.0, 10.0)));
+        }
+    }
+
+    @Benchmark
+    public List<HousingNeighbors.Neighbor> nearest() {
+        next = (next + 1) % SUBJECTS;
+        return neighbors.nearest(subjects.get(next), 10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<PropertyComparables> bulk() {
+        return service.findComparables(subjects, 10);
+    }
+}
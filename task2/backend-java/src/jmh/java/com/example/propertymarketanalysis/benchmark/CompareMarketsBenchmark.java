@@ -0,0 +1,52 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code compareMarkets()} fan-out over N locations, without the Spring cache in front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class CompareMarketsBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int locations;
+
+    private MarketAnalysisServiceImpl service;
+    private List<String> names;
+
+    @Setup
+    public void start() {
+        service = BenchmarkData.service(new HousingDataStore());
+        names = new ArrayList<>(locations);
+        for (int i = 0; i < locations; i++) {
+            names.add("City " + i);
+        }
+    }
+
+    @Benchmark
+    public List<MarketAnalysisResponse> compareMarkets() {
+        return service.compareMarkets(names, "HOUSE", "1Y");
+    }
+}
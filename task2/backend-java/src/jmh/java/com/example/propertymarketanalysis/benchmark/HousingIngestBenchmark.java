@@ -0,0 +1,47 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.Housing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold CSV ingestion behind {@code getHousingData()}: every invocation starts from a new data
+ * store, with the binary snapshot disabled so the CSV is parsed each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "--add-modules=jdk.incubator.vector"})
+public class HousingIngestBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int rows;
+
+    private String location;
+
+    @Setup
+    public void generate() throws IOException {
+        location = BenchmarkData.location(BenchmarkData.housingCsv(rows));
+    }
+
+    @Benchmark
+    public List<Housing> getHousingData() {
+        return BenchmarkData.service(new HousingDataStore(location, false, "", null)).getHousingData();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.config.CacheConfig;
+import com.example.propertymarketanalysis.data.HousingAggregate;
+import com.example.propertymarketanalysis.data.HousingAggregator;
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.HousingStats;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
+import com.example.propertymarketanalysis.service.MarketAnalysisService;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getHousingStats()} through the Spring cache proxy (hit, and miss after clearing the
+ * cache), the raw service method, and the full aggregation a reload pays for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "--add-modules=jdk.incubator.vector"})
+public class HousingStatsBenchmark {
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+    }
+
+    @Param({"1000", "100000", "10000000"})
+    private int rows;
+
+    private AnnotationConfigApplicationContext context;
+    private HousingDataStore housingDataStore;
+    private MarketAnalysisService cachedService;
+    private MarketAnalysisService service;
+    private Cache statsCache;
+
+    @Setup
+    public void start() throws IOException {
+        housingDataStore = new HousingDataStore(BenchmarkData.location(BenchmarkData.housingCsv(rows)), false, "", null);
+        housingDataStore.dataset();
+
+        context = new AnnotationConfigApplicationContext();
+        // Converts the service's Duration settings the way Spring Boot does
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.registerBean(HousingDataStore.class, () -> housingDataStore);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(CachingConfig.class, CacheConfig.class, MarketSeriesStore.class, MarketForecaster.class,
+                MarketAnalysisServiceImpl.class);
+        context.refresh();
+
+        cachedService = context.getBean(MarketAnalysisService.class);
+        service = BenchmarkData.service(housingDataStore);
+        statsCache = context.getBean(CacheManager.class).getCache(CacheConfig.HOUSING_STATS_CACHE);
+    }
+
+    @TearDown
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public HousingStats cacheHit() {
+        return cachedService.getHousingStats();
+    }
+
+    @Benchmark
+    public HousingStats cacheMiss() {
+        statsCache.clear();
+        return cachedService.getHousingStats();
+    }
+
+    @Benchmark
+    public HousingStats uncached() {
+        return service.getHousingStats();
+    }
+
+    @Benchmark
+    public HousingAggregate aggregateFromScratch() {
+        return HousingAggregator.aggregate(housingDataStore.columns());
+    }
+}
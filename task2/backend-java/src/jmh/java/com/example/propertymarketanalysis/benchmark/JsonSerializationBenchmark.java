@@ -0,0 +1,75 @@
+package com.example.propertymarketanalysis.benchmark;
+
+import com.example.propertymarketanalysis.config.BinaryFormatsConfig;
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
+import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a {@link MarketAnalysisResponse} as JSON and in the negotiated binary
+ * formats, with object mappers built the way the application builds its own. Encoded sizes are
+ * checked in {@code BinaryFormatsConfigTest} rather than reported here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JsonSerializationBenchmark {
+
+    /** Months of market data in the response. */
+    @Param({"1Y", "5Y"})
+    private String timeframe;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+    private MarketAnalysisResponse response;
+
+    @Setup
+    public void start() {
+        writer = mapper().writerFor(MarketAnalysisResponse.class);
+        MarketAnalysisRequest request = new MarketAnalysisRequest();
+        request.setLocation("Boston");
+        request.setPropertyType("HOUSE");
+        request.setTimeframe(timeframe);
+        response = BenchmarkData.service(new HousingDataStore()).getMarketAnalysis(request);
+    }
+
+    private ObjectMapper mapper() {
+        // As spring.jackson.serialization.write-dates-as-timestamps=false configures Spring Boot's builder
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        BinaryFormatsConfig binaryFormats = new BinaryFormatsConfig();
+        return switch (format) {
+            case "smile" -> binaryFormats.smileHttpMessageConverter(builder).getObjectMapper();
+            case "cbor" -> binaryFormats.cborHttpMessageConverter(builder).getObjectMapper();
+            default -> builder.build();
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.propertymarketanalysis.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-endpoint admission control. Each mapped handler (method and URL pattern) gets its own
+ * {@link AdmissionLane} with an adaptive {@link GradientLimit}, so a pile-up of slow
+ * {@code /compare} or {@code /housing} requests shrinks their own limit and is shed there, while
+ * cheap endpoints keep separate lanes and are not queued behind them. Paths matching
+ * {@code exemptPaths} (health checks and metrics by default) bypass admission entirely.
+ *
+ * <p>Lanes are created up front for the controller mappings once the context is refreshed, so
+ * {@code /housing/{id}} is one lane however many ids are requested. Requests that match no mapping
+ * (404s, scanners) share one overflow lane tagged {@code uri=other} and never create lanes or
+ * meters of their own.
+ *
+ * <p>Each lane publishes {@code http.admission.limit}, {@code http.admission.inflight} and
+ * {@code http.admission.queued} gauges and an {@code http.admission.rejected} counter, tagged
+ * with {@code method} and {@code uri}.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final double LATENCY_TOLERANCE = 1.5;
+    private static final String ANY_METHOD = "*";
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final List<String> exemptPaths;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final AdmissionLane overflow;
+    // Most specific pattern first, like handler mapping; replaced whole when endpoints are added
+    private volatile List<Endpoint> endpoints = List.of();
+
+    public AdmissionControl(@Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.initial-limit:20}") int initialLimit,
+                            @Value("${admission.min-limit:2}") int minLimit,
+                            @Value("${admission.max-limit:200}") int maxLimit,
+                            @Value("${admission.max-queue:32}") int maxQueue,
+                            @Value("${admission.max-wait:50ms}") Duration maxWait,
+                            @Value("${admission.retry-after:1s}") Duration retryAfter,
+                            @Value("${admission.exempt-paths:/api/market-analysis/health,/actuator/**}") String[] exemptPaths,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+        this.exemptPaths = List.of(exemptPaths);
+        this.meterRegistry = meterRegistry;
+        this.overflow = newLane(ANY_METHOD, "other");
+    }
+
+    /**
+     * Give every handler method of the context's request mappings its own lane.
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        for (RequestMappingInfoHandlerMapping mapping
+                : event.getApplicationContext().getBeansOfType(RequestMappingInfoHandlerMapping.class).values()) {
+            for (RequestMappingInfo info : mapping.getHandlerMethods().keySet()) {
+                Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+                for (String pattern : info.getPatternValues()) {
+                    if (methods.isEmpty()) {
+                        register(ANY_METHOD, pattern);
+                    }
+                    for (RequestMethod method : methods) {
+                        register(method.name(), pattern);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a lane for requests with {@code method} ({@code *} for any) whose path matches
+     * {@code pattern}. Registering the same endpoint again is a no-op.
+     */
+    synchronized void register(String method, String pattern) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.method().equals(method) && endpoint.pattern().getPatternString().equals(pattern)) {
+                return;
+            }
+        }
+        List<Endpoint> updated = new ArrayList<>(endpoints);
+        updated.add(new Endpoint(method, PathPatternParser.defaultInstance.parse(pattern), newLane(method, pattern)));
+        updated.sort(Comparator.comparing(Endpoint::pattern, PathPattern.SPECIFICITY_COMPARATOR));
+        endpoints = List.copyOf(updated);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isExempt(String path) {
+        for (String pattern : exemptPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whole seconds a rejected client should wait before retrying, for the {@code Retry-After} header.
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * The lane of the endpoint that would handle the request, or the shared overflow lane if none would.
+     */
+    public AdmissionLane lane(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        // GET handlers also answer HEAD
+        String mapped = method.equals("HEAD") ? "GET" : method;
+        for (Endpoint endpoint : endpoints) {
+            if ((endpoint.method().equals(mapped) || endpoint.method().equals(ANY_METHOD))
+                    && endpoint.pattern().matches(container)) {
+                return endpoint.lane();
+            }
+        }
+        return overflow;
+    }
+
+    private AdmissionLane newLane(String method, String uri) {
+        Tags tags = Tags.of("method", method, "uri", uri);
+        AdmissionLane lane = new AdmissionLane(
+                new GradientLimit(initialLimit, minLimit, maxLimit, LATENCY_TOLERANCE),
+                maxQueue,
+                maxWait.toNanos(),
+                Counter.builder("http.admission.rejected")
+                        .description("Requests turned away because the endpoint was at its concurrency limit")
+                        .tags(tags)
+                        .register(meterRegistry));
+        Gauge.builder("http.admission.limit", lane, AdmissionLane::limit)
+                .description("Current adaptive concurrency limit of the endpoint")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("http.admission.inflight", lane, AdmissionLane::inflight)
+                .description("Requests running on the endpoint")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("http.admission.queued", lane, AdmissionLane::queued)
+                .description("Requests waiting for a slot on the endpoint")
+                .tags(tags)
+                .register(meterRegistry);
+        return lane;
+    }
+
+    private record Endpoint(String method, PathPattern pattern, AdmissionLane lane) {
+    }
+}
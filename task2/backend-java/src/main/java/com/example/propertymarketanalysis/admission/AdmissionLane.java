@@ -0,0 +1,114 @@
+package com.example.propertymarketanalysis.admission;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission for one endpoint: at most {@link #limit()} requests run at once, up to
+ * {@code maxQueue} more wait for a slot for at most {@code maxWait}, and the rest are turned
+ * away at once. New arrivals do not overtake requests already waiting.
+ */
+public final class AdmissionLane {
+
+    private final GradientLimit limit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int inflight;
+    private int waiting;
+
+    AdmissionLane(GradientLimit limit, int maxQueue, long maxWaitNanos, Counter rejected) {
+        this.limit = limit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWaitNanos;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Take a slot, waiting briefly if the lane is full. A caller that gets {@code true} must
+     * {@link #release} the slot when the request completes.
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (waiting == 0 && inflight < limit.limit()) {
+                inflight++;
+                return true;
+            }
+            if (waiting >= maxQueue || !await()) {
+                rejected.increment();
+                return false;
+            }
+            inflight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give back a slot, with the time the request took once admitted.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            limit.onSample(latencyNanos, inflight);
+            inflight--;
+            // The limit may have grown by more than one slot
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return limit.limit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Whether a slot freed up within the wait; called holding the lock. */
+    private boolean await() {
+        waiting++;
+        try {
+            long remaining = maxWaitNanos;
+            while (inflight >= limit.limit()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting--;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.propertymarketanalysis.admission;
+
+/**
+ * Concurrency limit that follows latency. A short-term average of request latency is compared
+ * with a long-term one; while they stay within {@code tolerance} of each other the limit keeps
+ * growing by about its square root per sample, and once the short-term latency climbs past that
+ * the limit is scaled down in proportion, by at most half. Samples taken while fewer than half
+ * the permitted requests are in flight say nothing about a higher limit, so they only update the
+ * averages.
+ *
+ * <p>Not thread-safe; {@link AdmissionLane} calls it under its lock.
+ */
+final class GradientLimit {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 1.0 / 500;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private double limit;
+    private double shortLatency;
+    private double longLatency;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Fold in the latency of a request that completed while {@code inflight} requests, itself
+     * included, were running.
+     */
+    void onSample(long latencyNanos, int inflight) {
+        // A zero reading from a coarse clock would make the latency ratio 0/0
+        latencyNanos = Math.max(1, latencyNanos);
+        if (longLatency == 0) {
+            shortLatency = latencyNanos;
+            longLatency = latencyNanos;
+        }
+        shortLatency += (latencyNanos - shortLatency) * SHORT_WEIGHT;
+        longLatency += (latencyNanos - longLatency) * LONG_WEIGHT;
+        if (longLatency > 2 * shortLatency) {
+            // Recovering from an overload: let the baseline come back down faster than it rose
+            longLatency *= 0.95;
+        }
+        if (inflight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longLatency / shortLatency));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
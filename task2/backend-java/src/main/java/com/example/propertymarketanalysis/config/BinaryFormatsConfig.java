@@ -0,0 +1,38 @@
+package com.example.propertymarketanalysis.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the API for clients that ask for them with {@code Accept}: Smile
+ * ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}). Both mappers come
+ * from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so they follow the same
+ * {@code spring.jackson.*} settings as JSON. Declared as beans, they replace the converters Spring
+ * MVC would otherwise register with a default mapper, in the same position after JSON, so JSON
+ * stays the default.
+ *
+ * <p>Smile is written with shared string values, so the location and property type repeated on
+ * every market data row are back-references after their first occurrence.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
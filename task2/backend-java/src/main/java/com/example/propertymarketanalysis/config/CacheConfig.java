@@ -1,59 +1,105 @@
 package com.example.propertymarketanalysis.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
+import org.springframework.core.env.Environment;
 
-import java.io.InputStream;
-import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
 
-    @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
-        return Caffeine.newBuilder()
-                .maximumSize(500);
-    }
+    public static final String HOUSING_STATS_CACHE = "housingStats";
+    public static final String HOUSING_GROUPS_CACHE = "housingGroups";
+    public static final String MARKET_ANALYSIS_CACHE = "marketAnalysis";
+    public static final String HISTORICAL_DATA_CACHE = "historicalData";
+    public static final String CURRENT_TREND_CACHE = "currentTrend";
+    public static final String MARKET_FORECAST_CACHE = "marketForecast";
+    public static final String RESPONSE_BODIES_CACHE = "responseBodies";
+
+    /**
+     * Caches whose entries are recomputed by re-invoking the cached method, so they may use
+     * refreshAfterWrite. Their keys must come from {@link #marketCacheKeyGenerator}.
+     */
+    static final List<String> REFRESHING_CACHES = List.of(
+            MARKET_ANALYSIS_CACHE, HISTORICAL_DATA_CACHE, CURRENT_TREND_CACHE, MARKET_FORECAST_CACHE);
+
+    /**
+     * Caffeine specs used when {@code cache.spec.<name>} is not set. Trends move fastest, so they
+     * expire and refresh soonest; stats are keyed by dataset fingerprint and only need a size bound.
+     * Response bodies are weighed in bytes, so their spec must use {@code maximumWeight}.
+     */
+    static final Map<String, String> DEFAULT_SPECS = Map.of(
+            HOUSING_STATS_CACHE, "maximumSize=500,recordStats",
+            HOUSING_GROUPS_CACHE, "maximumSize=100,recordStats",
+            MARKET_ANALYSIS_CACHE, "maximumSize=1000,expireAfterWrite=30m,refreshAfterWrite=5m,recordStats",
+            HISTORICAL_DATA_CACHE, "maximumSize=2000,expireAfterWrite=1h,refreshAfterWrite=10m,recordStats",
+            CURRENT_TREND_CACHE, "maximumSize=1000,expireAfterWrite=10m,refreshAfterWrite=1m,recordStats",
+            MARKET_FORECAST_CACHE, "maximumSize=1000,expireAfterWrite=1h,refreshAfterWrite=15m,recordStats",
+            RESPONSE_BODIES_CACHE, "maximumWeight=67108864,recordStats");
 
+    /**
+     * One Caffeine cache per operation, each with its own spec. Only the named caches exist;
+     * {@code @Cacheable} on an unknown name fails fast instead of creating an unbounded cache.
+     * Refreshing caches reload hot entries asynchronously on the common pool while the stale
+     * value keeps being served; concurrent misses are coalesced by {@code @Cacheable(sync = true)}.
+     * Every cache records stats, even if its spec leaves them out, so the actuator can publish
+     * hit, miss and eviction counts per cache.
+     */
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager manager = new CaffeineCacheManager("housingStats");
-        manager.setCaffeine(caffeine);
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCacheNames(List.of());
+        manager.registerCustomCache(HOUSING_STATS_CACHE, caffeine(environment, HOUSING_STATS_CACHE).build());
+        manager.registerCustomCache(HOUSING_GROUPS_CACHE, caffeine(environment, HOUSING_GROUPS_CACHE).build());
+        manager.registerCustomCache(RESPONSE_BODIES_CACHE, caffeine(environment, RESPONSE_BODIES_CACHE)
+                .weigher((Object key, Object body) -> ((byte[]) body).length)
+                .build());
+        for (String cacheName : REFRESHING_CACHES) {
+            manager.registerCustomCache(cacheName, caffeine(environment, cacheName)
+                    .build(key -> ((MethodInvocationKey) key).invoke()));
+        }
         return manager;
     }
 
-    @Bean("housingStatsKeyGenerator")
-    public KeyGenerator housingStatsKeyGenerator() {
+    /**
+     * Key market operations by method and arguments, keeping enough to recompute the entry on refresh.
+     */
+    @Bean("marketCacheKeyGenerator")
+    public KeyGenerator marketCacheKeyGenerator(MeterRegistry meterRegistry) {
+        return timed("marketCacheKeyGenerator", meterRegistry, MethodInvocationKey::new);
+    }
+
+    /**
+     * Time every key computed by {@code keyGenerator} as {@code cache.key.generation}, since a key
+     * is built on every cached call, hit or miss.
+     */
+    private static KeyGenerator timed(String name, MeterRegistry meterRegistry, KeyGenerator keyGenerator) {
+        Timer timer = Timer.builder("cache.key.generation")
+                .description("Time to compute a cache key")
+                .tag("generator", name)
+                .register(meterRegistry);
         return (target, method, params) -> {
+            long start = System.nanoTime();
             try {
-                Resource resource = new ClassPathResource("data/housing.csv");
-                if (!resource.exists()) {
-                    return "housing_csv_missing";
-                }
-                MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                try (InputStream is = resource.getInputStream()) {
-                    byte[] buffer = new byte[8192];
-                    int read;
-                    while ((read = is.read(buffer)) > 0) {
-                        digest.update(buffer, 0, read);
-                    }
-                }
-                byte[] hash = digest.digest();
-                StringBuilder hex = new StringBuilder(hash.length * 2);
-                for (byte b : hash) {
-                    hex.append(String.format("%02x", b));
-                }
-                return hex.toString();
-            } catch (Exception e) {
-                // Fallback in case of any error computing key
-                return "housing_stats_key_error";
+                return keyGenerator.generate(target, method, params);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         };
     }
-}
\ No newline at end of file
+
+    private static Caffeine<Object, Object> caffeine(Environment environment, String cacheName) {
+        String spec = environment.getProperty("cache.spec." + cacheName, DEFAULT_SPECS.get(cacheName));
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        return spec.contains("recordStats") ? builder : builder.recordStats();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.propertymarketanalysis.config;
+
+import com.example.propertymarketanalysis.data.HousingDatasetChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Clears caches derived from the housing dataset when a reload swaps in new content, so entries
+ * keyed by the previous fingerprint do not linger until size-based eviction.
+ */
+@Component
+@RequiredArgsConstructor
+public class HousingCacheEvictor {
+
+    private static final List<String> HOUSING_CACHES = List.of(
+            CacheConfig.HOUSING_STATS_CACHE, CacheConfig.HOUSING_GROUPS_CACHE, CacheConfig.RESPONSE_BODIES_CACHE);
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onHousingDatasetChanged(HousingDatasetChangedEvent event) {
+        for (String cacheName : HOUSING_CACHES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.propertymarketanalysis.config;
+
+import com.example.propertymarketanalysis.market.MarketModelFittedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a market's cached forecasts once its provisional model has been replaced by a fitted one,
+ * so they are recomputed from the fitted model instead of waiting for the cache to refresh them.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarketForecastCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onMarketModelFitted(MarketModelFittedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.MARKET_FORECAST_CACHE);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> forecasts) {
+            forecasts.asMap().keySet().removeIf(key -> key instanceof MethodInvocationKey invocation
+                    && invocation.hasLeadingArguments(event.location(), event.propertyType()));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.propertymarketanalysis.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Cache key for a method call that also remembers how to repeat it, so a cache built with a
+ * loader can refresh the entry in the background without going back through the caller. Equality
+ * covers the method and its arguments only; the target is the (singleton) bean that owns it.
+ */
+final class MethodInvocationKey {
+
+    private final Object target;
+    private final Method method;
+    private final Object[] args;
+    private final int hash;
+
+    MethodInvocationKey(Object target, Method method, Object[] args) {
+        this.target = target;
+        this.method = method;
+        this.args = args.clone();
+        this.hash = 31 * method.hashCode() + Arrays.deepHashCode(this.args);
+    }
+
+    /**
+     * Call the method on the target directly, bypassing the caching proxy.
+     */
+    Object invoke() throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the call's first arguments are {@code leading}, in order.
+     */
+    boolean hasLeadingArguments(Object... leading) {
+        return args.length >= leading.length
+                && Arrays.equals(Arrays.copyOf(args, leading.length), leading);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MethodInvocationKey key
+                && method.equals(key.method)
+                && Arrays.deepEquals(args, key.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method.getName() + Arrays.deepToString(args);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.propertymarketanalysis.config;
+
+import com.example.propertymarketanalysis.valuation.LinearValuationModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+
+@Slf4j
+@Configuration
+public class ValuationConfig {
+
+    /**
+     * The task1 model, scored in-process. {@code model_info.json} is exported by task1's
+     * {@code train.py}; point {@code valuation.local.model-info} at a newer export after retraining.
+     */
+    @Bean
+    public LinearValuationModel linearValuationModel(
+            @Value("${valuation.local.model-info:classpath:model/model_info.json}") String location,
+            ObjectMapper objectMapper) throws IOException {
+        LinearValuationModel model = LinearValuationModel.load(new DefaultResourceLoader().getResource(location), objectMapper);
+        log.info("Loaded valuation model from {} ({} bulk scoring)", location,
+                LinearValuationModel.vectorized() ? "vectorized" : "scalar");
+        return model;
+    }
+}
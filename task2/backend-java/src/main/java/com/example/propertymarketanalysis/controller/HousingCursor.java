@@ -0,0 +1,53 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.data.HousingDataset;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque paging cursor for the housing endpoint. Clients should treat the value as a token and
+ * pass it back unchanged. The cursor is tied to the dataset version it was issued for, so paging
+ * across a reload fails instead of silently skipping or repeating rows.
+ */
+final class HousingCursor {
+
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private HousingCursor() {
+    }
+
+    static String encode(HousingDataset dataset, int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tag(dataset) + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into a row offset, rejecting anything malformed, past the end of the data,
+     * or issued for a different dataset version.
+     */
+    static int decode(String cursor, HousingDataset dataset) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator > 0) {
+                if (!decoded.substring(0, separator).equals(tag(dataset))) {
+                    throw new ResponseStatusException(HttpStatus.GONE, "Housing data changed; restart paging");
+                }
+                int offset = Integer.parseInt(decoded.substring(separator + 1));
+                if (offset >= 0 && offset <= dataset.columns().size()) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the rejection below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid housing cursor");
+    }
+
+    private static String tag(HousingDataset dataset) {
+        return dataset.fingerprint().substring(0, FINGERPRINT_LENGTH);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes housing rows straight from the columnar store to the response stream, one row at a
+ * time, so memory use does not grow with the number of rows exported. The field layout matches
+ * Jackson's serialization of {@link com.example.propertymarketanalysis.dto.Housing}.
+ */
+@Component
+public class HousingStreamWriter {
+
+    private final JsonFactory jsonFactory;
+
+    public HousingStreamWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Write rows {@code [from, to)} as a single JSON array.
+     */
+    public void writeJsonArray(HousingColumns columns, int from, int to, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartArray();
+            for (int row = from; row < to; row++) {
+                writeRow(generator, columns, row);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Write rows {@code [from, to)} as newline-delimited JSON, one object per line.
+     */
+    public void writeNdjson(HousingColumns columns, int from, int to, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            for (int row = from; row < to; row++) {
+                writeRow(generator, columns, row);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeRow(JsonGenerator generator, HousingColumns columns, int row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", columns.id(row));
+        generator.writeNumberField("squareFootage", columns.squareFootage(row));
+        generator.writeNumberField("bedrooms", columns.bedrooms(row));
+        generator.writeNumberField("bathrooms", columns.bathrooms(row));
+        generator.writeNumberField("yearBuilt", columns.yearBuilt(row));
+        generator.writeNumberField("lotSize", columns.lotSize(row));
+        generator.writeNumberField("distanceToCityCenter", columns.distanceToCityCenter(row));
+        generator.writeNumberField("schoolRating", columns.schoolRating(row));
+        generator.writeNumberField("price", columns.price(row));
+        generator.writeEndObject();
+    }
+}
@@ -1,25 +1,96 @@
 package com.example.propertymarketanalysis.controller;
 
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.data.HousingDataset;
+import com.example.propertymarketanalysis.data.HousingDimension;
 import com.example.propertymarketanalysis.dto.Housing;
-import com.example.propertymarketanalysis.dto.HousingStats;
+import com.example.propertymarketanalysis.dto.HousingAppendResult;
+import com.example.propertymarketanalysis.dto.HousingGroups;
+import com.example.propertymarketanalysis.dto.HousingQuery;
 import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
 import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
 import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketQuery;
+import com.example.propertymarketanalysis.dto.MarketQueryResult;
+import com.example.propertymarketanalysis.dto.MarketRollup;
 import com.example.propertymarketanalysis.dto.MarketTrend;
+import com.example.propertymarketanalysis.dto.PropertyComparables;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.dto.PropertyValuation;
+import com.example.propertymarketanalysis.market.MarketSeries;
 import com.example.propertymarketanalysis.service.MarketAnalysisService;
-import lombok.RequiredArgsConstructor;
+import com.example.propertymarketanalysis.service.ValuationService;
+import com.example.propertymarketanalysis.valuation.ValuationUnavailableException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/market-analysis")
-@RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class MarketAnalysisController {
     
+    private static final int MAX_PAGE_SIZE = 10_000;
+    private static final int MAX_APPEND_BATCH = 10_000;
+    private static final int MAX_VALUATION_BATCH = 1_000;
+    private static final int MAX_QUERY_BATCH = 500;
+    private static final int MAX_COMPARABLES = 100;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    /** Lower bound on the JSON size of a housing row, for deciding whether a page is worth compressing. */
+    private static final int MIN_ROW_BYTES = 100;
+    
     private final MarketAnalysisService marketAnalysisService;
+    private final ValuationService valuationService;
+    private final HousingStreamWriter housingStreamWriter;
+    private final ResponseBodyCache responseBodyCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader housingReader;
+    private final ObjectReader featuresReader;
+    private final long compressionMinSize;
+    private final String cacheControl;
+    
+    public MarketAnalysisController(MarketAnalysisService marketAnalysisService,
+                                    ValuationService valuationService,
+                                    HousingStreamWriter housingStreamWriter,
+                                    ResponseBodyCache responseBodyCache,
+                                    ObjectMapper objectMapper,
+                                    @Value("${http.compression.min-size:2KB}") DataSize compressionMinSize,
+                                    @Value("${http.cache-control.max-age:0s}") Duration maxAge) {
+        this.marketAnalysisService = marketAnalysisService;
+        this.valuationService = valuationService;
+        this.housingStreamWriter = housingStreamWriter;
+        this.responseBodyCache = responseBodyCache;
+        this.objectMapper = objectMapper;
+        this.compressionMinSize = compressionMinSize.toBytes();
+        // Either way clients keep the body and revalidate it with a conditional GET
+        this.cacheControl = (maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge)).getHeaderValue();
+        this.housingReader = objectMapper.readerForListOf(Housing.class)
+                .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        this.featuresReader = objectMapper.readerForListOf(PropertyFeatures.class)
+                .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+    }
     
     /**
      * Get comprehensive market analysis
@@ -45,6 +116,20 @@ public class MarketAnalysisController {
         return ResponseEntity.ok(data);
     }
     
+    /**
+     * Get quarterly or yearly rollups of the full market history
+     * GET /api/market-analysis/historical/rollups?location={location}&propertyType={type}&granularity={QUARTER|YEAR}
+     */
+    @GetMapping("/historical/rollups")
+    public ResponseEntity<List<MarketRollup>> getHistoricalRollups(
+            @RequestParam String location,
+            @RequestParam(defaultValue = "ALL") String propertyType,
+            @RequestParam(defaultValue = "QUARTER") MarketSeries.Granularity granularity) {
+        
+        List<MarketRollup> rollups = marketAnalysisService.getHistoricalRollups(location, propertyType, granularity);
+        return ResponseEntity.ok(rollups);
+    }
+    
     /**
      * Get current market trend
      * GET /api/market-analysis/trend?location={location}&propertyType={type}
@@ -72,6 +157,25 @@ public class MarketAnalysisController {
         return ResponseEntity.ok(comparisons);
     }
     
+    /**
+     * Answer a batch of market queries in one request, in the order given
+     * POST /api/market-analysis/batch
+     * Each query has a type (ANALYSIS, HISTORICAL, TREND or FORECAST), location, propertyType and
+     * timeframe. Queries for the same market are planned together so shared work is done once.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<MarketQueryResult>> analyzeBatch(@RequestBody List<@NotNull MarketQuery> queries) {
+        if (queries.size() > MAX_QUERY_BATCH) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_QUERY_BATCH + " queries per request");
+        }
+        try {
+            return ResponseEntity.ok(marketAnalysisService.analyzeBatch(queries));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+    
     /**
      * Get market forecast
      * GET /api/market-analysis/forecast?location={location}&propertyType={type}&period={period}
@@ -87,15 +191,149 @@ public class MarketAnalysisController {
     }
     
     /**
-     * Get all housing data from CSV file
-     * GET /api/market-analysis/housing
+     * Get housing data, streamed row by row
+     * GET /api/market-analysis/housing?limit={limit}&cursor={cursor}
+     * Responds with a JSON array by default, or newline-delimited JSON when the client accepts
+     * application/x-ndjson. When a limit is given and more rows remain, the cursor for the next
+     * page is returned in the X-Next-Cursor header. Responses carry an ETag for the dataset, so a
+     * poll of unchanged data gets 304 Not Modified; larger pages are gzipped for clients that
+     * accept it.
      */
     @GetMapping("/housing")
-    public ResponseEntity<List<Housing>> getHousingData() {
-        List<Housing> housingData = marketAnalysisService.getHousingData();
+    public ResponseEntity<StreamingResponseBody> getHousingData(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        
+        if (limit != null && limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        HousingDataset dataset = marketAnalysisService.getHousingDataset();
+        HousingColumns columns = dataset.columns();
+        int from = cursor == null ? 0 : HousingCursor.decode(cursor, dataset);
+        int to = limit == null ? columns.size() : (int) Math.min(columns.size(), (long) from + Math.min(limit, MAX_PAGE_SIZE));
+        boolean ndjson = acceptsNdjson(accept);
+        boolean gzip = acceptsGzip(acceptEncoding) && (long) (to - from) * MIN_ROW_BYTES >= compressionMinSize;
+        String etag = etag(dataset, (ndjson ? "ndjson-" : "json-") + from + "-" + to, gzip);
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (notModified(webRequest, servletResponse, etag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON);
+        if (to < columns.size()) {
+            response.header(NEXT_CURSOR_HEADER, HousingCursor.encode(dataset, to));
+        }
+        StreamingResponseBody body = ndjson
+                ? out -> housingStreamWriter.writeNdjson(columns, from, to, out)
+                : out -> housingStreamWriter.writeJsonArray(columns, from, to, out);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = responseBodyCache.gzip(etag, body);
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * Append housing records, a single JSON object or an array of up to 10,000
+     * POST /api/market-analysis/housing
+     * Statistics are updated incrementally from the new records alone. Appended records are kept
+     * in memory until the next reload of the source file.
+     */
+    @PostMapping("/housing")
+    public ResponseEntity<HousingAppendResult> appendHousing(@RequestBody JsonNode body) {
+        List<Housing> records;
+        try {
+            records = housingReader.readValue(body);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid housing records", e);
+        }
+        if (records.size() > MAX_APPEND_BATCH) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_APPEND_BATCH + " records per request");
+        }
+        
+        HousingDataset dataset;
+        try {
+            dataset = marketAnalysisService.appendHousing(records);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.ok(new HousingAppendResult(records.size(), dataset.version(),
+                dataset.columns().size(), dataset.fingerprint()));
+    }
+    
+    /**
+     * Search housing data by price, size, age, location and school rating ranges
+     * GET /api/market-analysis/housing/search?minPrice={min}&maxPrice={max}&bedrooms={n}&...
+     */
+    @GetMapping("/housing/search")
+    public ResponseEntity<List<Housing>> searchHousing(@ModelAttribute HousingQuery query) {
+        List<Housing> housingData = marketAnalysisService.searchHousing(query);
         return ResponseEntity.ok(housingData);
     }
     
+    /**
+     * Estimate property values with the valuation model, a single JSON object or an array of up to 1,000
+     * POST /api/market-analysis/valuations
+     * Estimates from concurrent requests are batched into shared model calls and cached by features.
+     */
+    @PostMapping("/valuations")
+    public ResponseEntity<List<PropertyValuation>> estimateValues(@RequestBody JsonNode body) {
+        List<PropertyFeatures> properties;
+        try {
+            properties = featuresReader.readValue(body);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid property features", e);
+        }
+        if (properties.size() > MAX_VALUATION_BATCH) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_VALUATION_BATCH + " properties per request");
+        }
+        
+        try {
+            return ResponseEntity.ok(valuationService.estimateValues(properties));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (ValuationUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Find the k most similar housing records to each property, a single JSON object or an array of up to 1,000
+     * POST /api/market-analysis/comparables?k={k}
+     * Any of the valuation features may be left out; similarity is measured over the ones given.
+     */
+    @PostMapping("/comparables")
+    public ResponseEntity<List<PropertyComparables>> findComparables(
+            @RequestBody JsonNode body,
+            @RequestParam(defaultValue = "10") int k) {
+        if (k <= 0 || k > MAX_COMPARABLES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must be between 1 and " + MAX_COMPARABLES);
+        }
+        List<PropertyFeatures> subjects;
+        try {
+            subjects = featuresReader.readValue(body);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid property features", e);
+        }
+        if (subjects.size() > MAX_VALUATION_BATCH) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_VALUATION_BATCH + " properties per request");
+        }
+        
+        try {
+            return ResponseEntity.ok(marketAnalysisService.findComparables(subjects, k));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+    
     /**
      * Health check endpoint
      * GET /api/market-analysis/health
@@ -108,10 +346,132 @@ public class MarketAnalysisController {
     /**
      * Get aggregate housing statistics
      * GET /api/market-analysis/housing/stats
+     * The serialized (and, when large enough, gzipped) body is kept per dataset, and polls of an
+     * unchanged dataset get 304 Not Modified. The body and its ETag come from the same dataset
+     * snapshot, so a concurrent reload or append cannot pair new stats with an old tag. A client
+     * that prefers Smile or CBOR gets that encoding instead, written by the message converter on
+     * each request rather than cached, and revalidated under its own tag.
      */
     @GetMapping("/housing/stats")
-    public ResponseEntity<HousingStats> getHousingStats() {
-        HousingStats stats = marketAnalysisService.getHousingStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<?> getHousingStats(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest,
+            HttpServletResponse servletResponse) {
+        HousingDataset dataset = marketAnalysisService.getHousingDataset();
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        MediaType format = statsFormat(accept);
+        if (!format.equals(MediaType.APPLICATION_JSON)) {
+            String representation = format.equals(SMILE) ? "stats-smile" : "stats-cbor";
+            if (notModified(webRequest, servletResponse, etag(dataset, representation, false))) {
+                return null;
+            }
+            return ResponseEntity.ok().contentType(format).body(marketAnalysisService.getHousingStats(dataset));
+        }
+        
+        byte[] json = responseBodyCache.get(etag(dataset, "stats", false),
+                () -> objectMapper.writeValueAsBytes(marketAnalysisService.getHousingStats(dataset)));
+        boolean gzip = acceptsGzip(acceptEncoding) && json.length >= compressionMinSize;
+        String etag = etag(dataset, "stats", gzip);
+        servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (notModified(webRequest, servletResponse, etag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(responseBodyCache.get(etag, () -> ResponseBodyCache.gzip(json)));
+        }
+        return response.body(json);
+    }
+    
+    /**
+     * Get housing statistics per bedroom count, year-built decade, distance band or school rating
+     * GET /api/market-analysis/housing/groups?by={BEDROOMS|YEAR_BUILT_DECADE|DISTANCE_BAND|SCHOOL_RATING_BUCKET}
+     */
+    @GetMapping("/housing/groups")
+    public ResponseEntity<HousingGroups> getHousingGroups(@RequestParam HousingDimension by) {
+        HousingGroups groups = marketAnalysisService.getHousingGroups(by);
+        return ResponseEntity.ok(groups);
+    }
+    
+    /**
+     * Strong ETag for one representation of the dataset. The fingerprint identifies the content,
+     * so the tag stays valid across restarts and is shared by instances serving the same data.
+     */
+    private static String etag(HousingDataset dataset, String representation, boolean gzip) {
+        return "\"" + dataset.fingerprint().substring(0, 16) + "-" + representation + (gzip ? "-gzip" : "") + "\"";
+    }
+    
+    /**
+     * Evaluate If-None-Match, setting ETag and Cache-Control on the response either way. There is
+     * no Last-Modified: the dataset has no modification time that follows its content (a restart
+     * reloads the same rows, an append changes them without touching the source), and the
+     * fingerprint-based ETag already answers the question exactly.
+     */
+    private boolean notModified(WebRequest webRequest, HttpServletResponse servletResponse, String etag) {
+        servletResponse.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return webRequest.checkNotModified(etag);
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                // gzip;q=0 means the client refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * The encoding the client prefers among JSON, Smile and CBOR; JSON when it does not say.
+     *
+     * @throws ResponseStatusException 406 if it accepts none of them
+     */
+    private static MediaType statsFormat(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mediaType.equalsTypeAndSubtype(SMILE)) {
+                return SMILE;
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "Housing stats are available as JSON, Smile or CBOR");
+    }
+    
+    private static boolean acceptsNdjson(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
     }
-}
\ No newline at end of file
+}
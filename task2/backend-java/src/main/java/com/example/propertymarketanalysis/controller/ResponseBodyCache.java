@@ -0,0 +1,123 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded response bodies (serialized JSON, gzip) keyed by their strong ETag, which embeds the
+ * dataset fingerprint, so polls of unchanged data are answered without serializing or
+ * compressing again. Entries for older datasets are cleared by the
+ * {@link com.example.propertymarketanalysis.config.HousingCacheEvictor} and otherwise age out
+ * of the byte-bounded {@value CacheConfig#RESPONSE_BODIES_CACHE} cache.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final Cache cache;
+    private final long maxEntryBytes;
+
+    public ResponseBodyCache(CacheManager cacheManager,
+                             @Value("${http.body-cache.max-entry-size:16MB}") DataSize maxEntrySize) {
+        this.cache = cacheManager.getCache(CacheConfig.RESPONSE_BODIES_CACHE);
+        this.maxEntryBytes = maxEntrySize.toBytes();
+    }
+
+    /**
+     * The cached body for {@code key}, computing it once if absent.
+     */
+    public byte[] get(String key, Callable<byte[]> body) {
+        return cache.get(key, body);
+    }
+
+    /**
+     * Stream {@code body} gzip-compressed. The compressed bytes are kept as they are written and
+     * cached under {@code key} if they fit in {@code http.body-cache.max-entry-size}; later
+     * requests for the same key are served from the cache without running {@code body}.
+     */
+    public StreamingResponseBody gzip(String key, StreamingResponseBody body) {
+        return out -> {
+            byte[] cached = cache.get(key, byte[].class);
+            if (cached != null) {
+                out.write(cached);
+                return;
+            }
+            CapturingOutputStream capture = new CapturingOutputStream(out, maxEntryBytes);
+            GZIPOutputStream gzip = new GZIPOutputStream(capture, GZIP_BUFFER);
+            body.writeTo(gzip);
+            // finish() rather than close(): the servlet stream belongs to the container
+            gzip.finish();
+            byte[] compressed = capture.captured();
+            if (compressed != null) {
+                cache.put(key, compressed);
+            }
+        };
+    }
+
+    public static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Passes bytes through while keeping a copy, until the copy would exceed {@code limit}.
+     */
+    private static class CapturingOutputStream extends FilterOutputStream {
+
+        private final long limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream out, long limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            keep(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            keep(b, off, len);
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (copy != null) {
+                if (copy.size() + (long) len > limit) {
+                    copy = null;
+                } else {
+                    copy.write(b, off, len);
+                }
+            }
+        }
+
+        /**
+         * Everything written, or {@code null} if it went past the limit.
+         */
+        byte[] captured() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.propertymarketanalysis.data;
+
+import java.util.Arrays;
+
+/**
+ * Running count, sum, min, max, mean and variance for every {@link HousingField}. Means and
+ * second moments are kept with Welford's update so partial aggregates can be merged exactly.
+ * Each {@link HousingMeasure} also gets a {@link QuantileSketch}, which merges the same way,
+ * unless the aggregate is created {@link #withoutSketches() without} them.
+ */
+public final class HousingAggregate {
+
+    private static final int FIELDS = HousingField.values().length;
+    private static final int SQUARE_FOOTAGE = HousingField.SQUARE_FOOTAGE.ordinal();
+    private static final int BEDROOMS = HousingField.BEDROOMS.ordinal();
+    private static final int BATHROOMS = HousingField.BATHROOMS.ordinal();
+    private static final int YEAR_BUILT = HousingField.YEAR_BUILT.ordinal();
+    private static final int LOT_SIZE = HousingField.LOT_SIZE.ordinal();
+    private static final int DISTANCE_TO_CITY_CENTER = HousingField.DISTANCE_TO_CITY_CENTER.ordinal();
+    private static final int SCHOOL_RATING = HousingField.SCHOOL_RATING.ordinal();
+    private static final int PRICE = HousingField.PRICE.ordinal();
+    private static final HousingMeasure[] MEASURES = HousingMeasure.values();
+
+    private long count;
+    private final double[] sum = new double[FIELDS];
+    private final double[] min = new double[FIELDS];
+    private final double[] max = new double[FIELDS];
+    private final double[] mean = new double[FIELDS];
+    private final double[] m2 = new double[FIELDS];
+    private final QuantileSketch[] sketches;
+
+    public HousingAggregate() {
+        this(true);
+    }
+
+    private HousingAggregate(boolean sketched) {
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        sketches = new QuantileSketch[sketched ? MEASURES.length : 0];
+        for (int i = 0; i < sketches.length; i++) {
+            sketches[i] = new QuantileSketch();
+        }
+    }
+
+    /**
+     * Aggregate that tracks moments only. Each sketch costs about 20 KB, which adds up when one
+     * aggregate is kept per group per partition.
+     */
+    public static HousingAggregate withoutSketches() {
+        return new HousingAggregate(false);
+    }
+
+    /**
+     * Fold rows {@code [from, to)} into this aggregate in one pass over every column.
+     */
+    public HousingAggregate accumulate(HousingColumns columns, int from, int to) {
+        for (int row = from; row < to; row++) {
+            count++;
+            double inverseCount = 1.0 / count;
+            update(SQUARE_FOOTAGE, columns.squareFootage(row), inverseCount);
+            update(BEDROOMS, columns.bedrooms(row), inverseCount);
+            update(BATHROOMS, columns.bathrooms(row), inverseCount);
+            update(YEAR_BUILT, columns.yearBuilt(row), inverseCount);
+            update(LOT_SIZE, columns.lotSize(row), inverseCount);
+            update(DISTANCE_TO_CITY_CENTER, columns.distanceToCityCenter(row), inverseCount);
+            update(SCHOOL_RATING, columns.schoolRating(row), inverseCount);
+            update(PRICE, columns.price(row), inverseCount);
+            for (int i = 0; i < sketches.length; i++) {
+                sketches[i].add(MEASURES[i].value(columns, row));
+            }
+        }
+        return this;
+    }
+
+    private void update(int field, double value, double inverseCount) {
+        sum[field] += value;
+        if (value < min[field]) {
+            min[field] = value;
+        }
+        if (value > max[field]) {
+            max[field] = value;
+        }
+        double delta = value - mean[field];
+        mean[field] += delta * inverseCount;
+        m2[field] += delta * (value - mean[field]);
+    }
+
+    /**
+     * Independent copy, so a shared aggregate can be extended without modifying it.
+     */
+    public HousingAggregate copy() {
+        return new HousingAggregate(sketches.length > 0).merge(this);
+    }
+
+    /**
+     * Combine another partial aggregate into this one (Chan et al. parallel variance).
+     */
+    public HousingAggregate merge(HousingAggregate other) {
+        if (other.count == 0) {
+            return this;
+        }
+        for (int i = 0; i < Math.min(sketches.length, other.sketches.length); i++) {
+            sketches[i].merge(other.sketches[i]);
+        }
+        if (count == 0) {
+            count = other.count;
+            System.arraycopy(other.sum, 0, sum, 0, FIELDS);
+            System.arraycopy(other.min, 0, min, 0, FIELDS);
+            System.arraycopy(other.max, 0, max, 0, FIELDS);
+            System.arraycopy(other.mean, 0, mean, 0, FIELDS);
+            System.arraycopy(other.m2, 0, m2, 0, FIELDS);
+            return this;
+        }
+        long total = count + other.count;
+        double weight = (double) other.count / total;
+        double crossWeight = (double) count * other.count / total;
+        for (int field = 0; field < FIELDS; field++) {
+            double delta = other.mean[field] - mean[field];
+            sum[field] += other.sum[field];
+            min[field] = Math.min(min[field], other.min[field]);
+            max[field] = Math.max(max[field], other.max[field]);
+            mean[field] += delta * weight;
+            m2[field] += other.m2[field] + delta * delta * crossWeight;
+        }
+        count = total;
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double sum(HousingField field) {
+        return sum[field.ordinal()];
+    }
+
+    /**
+     * Smallest value seen, or {@code NaN} when the aggregate is empty.
+     */
+    public double min(HousingField field) {
+        return count == 0 ? Double.NaN : min[field.ordinal()];
+    }
+
+    /**
+     * Largest value seen, or {@code NaN} when the aggregate is empty.
+     */
+    public double max(HousingField field) {
+        return count == 0 ? Double.NaN : max[field.ordinal()];
+    }
+
+    public double mean(HousingField field) {
+        return mean[field.ordinal()];
+    }
+
+    /**
+     * Population variance of the field.
+     */
+    public double variance(HousingField field) {
+        return count == 0 ? 0.0 : m2[field.ordinal()] / count;
+    }
+
+    public double standardDeviation(HousingField field) {
+        return Math.sqrt(variance(field));
+    }
+
+    /**
+     * Distribution sketch of the measure, or {@code null} for an aggregate without sketches;
+     * shared, so do not add to it.
+     */
+    public QuantileSketch sketch(HousingMeasure measure) {
+        return sketches.length == 0 ? null : sketches[measure.ordinal()];
+    }
+}
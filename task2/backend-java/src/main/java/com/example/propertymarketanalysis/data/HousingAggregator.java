@@ -0,0 +1,58 @@
+package com.example.propertymarketanalysis.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes a {@link HousingAggregate} over a {@link HousingColumns} snapshot. Small datasets are
+ * folded on the calling thread; larger ones are split into row ranges and aggregated on the
+ * common fork-join pool, with the partial results merged on the way back up.
+ */
+public final class HousingAggregator {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    private HousingAggregator() {
+    }
+
+    public static HousingAggregate aggregate(HousingColumns columns) {
+        return aggregate(columns, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param parallelThreshold row count below which a range is aggregated sequentially
+     */
+    public static HousingAggregate aggregate(HousingColumns columns, int parallelThreshold) {
+        int threshold = Math.max(parallelThreshold, 1);
+        if (columns.size() <= threshold) {
+            return new HousingAggregate().accumulate(columns, 0, columns.size());
+        }
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(columns, 0, columns.size(), threshold));
+    }
+
+    private static final class AggregateTask extends RecursiveTask<HousingAggregate> {
+        private final HousingColumns columns;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        AggregateTask(HousingColumns columns, int from, int to, int threshold) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected HousingAggregate compute() {
+            if (to - from <= threshold) {
+                return new HousingAggregate().accumulate(columns, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(columns, from, middle, threshold);
+            left.fork();
+            HousingAggregate right = new AggregateTask(columns, middle, to, threshold).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.Housing;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, column-oriented copy of the housing dataset. Every field lives in its own
+ * primitive array so scans and aggregations never touch boxed values.
+ *
+ * <p>The arrays may be longer than {@link #size()}. {@link #append} writes new rows into that
+ * spare tail and returns a larger view over the same arrays, so appending costs O(batch); older
+ * views never read past their own size and are unaffected.
+ */
+public final class HousingColumns {
+
+    private static final HousingColumns EMPTY = new Builder(0).build();
+
+    private final int size;
+    private final long[] ids;
+    private final int[] squareFootage;
+    private final int[] bedrooms;
+    private final double[] bathrooms;
+    private final int[] yearBuilt;
+    private final int[] lotSize;
+    private final double[] distanceToCityCenter;
+    private final double[] schoolRating;
+    private final int[] price;
+    // Shared by every view over these arrays; records how many slots are taken
+    private final Tail tail;
+
+    private HousingColumns(int size, long[] ids, int[] squareFootage, int[] bedrooms, double[] bathrooms,
+                           int[] yearBuilt, int[] lotSize, double[] distanceToCityCenter,
+                           double[] schoolRating, int[] price) {
+        this(size, ids, squareFootage, bedrooms, bathrooms, yearBuilt, lotSize, distanceToCityCenter,
+                schoolRating, price, new Tail(size));
+    }
+
+    private HousingColumns(int size, long[] ids, int[] squareFootage, int[] bedrooms, double[] bathrooms,
+                           int[] yearBuilt, int[] lotSize, double[] distanceToCityCenter,
+                           double[] schoolRating, int[] price, Tail tail) {
+        this.size = size;
+        this.ids = ids;
+        this.squareFootage = squareFootage;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.yearBuilt = yearBuilt;
+        this.lotSize = lotSize;
+        this.distanceToCityCenter = distanceToCityCenter;
+        this.schoolRating = schoolRating;
+        this.price = price;
+        this.tail = tail;
+    }
+
+    public static HousingColumns empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    /**
+     * Join several column sets end to end, preserving their order.
+     */
+    public static HousingColumns concat(List<HousingColumns> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int total = 0;
+        for (HousingColumns part : parts) {
+            total = Math.addExact(total, part.size);
+        }
+        HousingColumns joined = new HousingColumns(total, new long[total], new int[total], new int[total],
+                new double[total], new int[total], new int[total], new double[total], new double[total], new int[total]);
+        int offset = 0;
+        for (HousingColumns part : parts) {
+            copyRows(part, joined, offset);
+            offset += part.size;
+        }
+        return joined;
+    }
+
+    /**
+     * Return a view with {@code batch} added after the existing rows. When this is the newest view
+     * over its arrays and they have room, the rows are written in place; otherwise the arrays are
+     * copied with 50% headroom so the following appends can be done in place again.
+     */
+    public HousingColumns append(HousingColumns batch) {
+        int n = batch.size;
+        if (n == 0) {
+            return this;
+        }
+        int newSize = Math.addExact(size, n);
+        synchronized (tail) {
+            if (tail.used == size && newSize <= ids.length) {
+                HousingColumns appended = new HousingColumns(newSize, ids, squareFootage, bedrooms, bathrooms,
+                        yearBuilt, lotSize, distanceToCityCenter, schoolRating, price, tail);
+                copyRows(batch, appended, size);
+                tail.used = newSize;
+                return appended;
+            }
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(newSize, newSize + (newSize >> 1)));
+        HousingColumns grown = new HousingColumns(newSize,
+                Arrays.copyOf(ids, capacity),
+                Arrays.copyOf(squareFootage, capacity),
+                Arrays.copyOf(bedrooms, capacity),
+                Arrays.copyOf(bathrooms, capacity),
+                Arrays.copyOf(yearBuilt, capacity),
+                Arrays.copyOf(lotSize, capacity),
+                Arrays.copyOf(distanceToCityCenter, capacity),
+                Arrays.copyOf(schoolRating, capacity),
+                Arrays.copyOf(price, capacity));
+        copyRows(batch, grown, size);
+        return grown;
+    }
+
+    private static void copyRows(HousingColumns from, HousingColumns to, int offset) {
+        int n = from.size;
+        System.arraycopy(from.ids, 0, to.ids, offset, n);
+        System.arraycopy(from.squareFootage, 0, to.squareFootage, offset, n);
+        System.arraycopy(from.bedrooms, 0, to.bedrooms, offset, n);
+        System.arraycopy(from.bathrooms, 0, to.bathrooms, offset, n);
+        System.arraycopy(from.yearBuilt, 0, to.yearBuilt, offset, n);
+        System.arraycopy(from.lotSize, 0, to.lotSize, offset, n);
+        System.arraycopy(from.distanceToCityCenter, 0, to.distanceToCityCenter, offset, n);
+        System.arraycopy(from.schoolRating, 0, to.schoolRating, offset, n);
+        System.arraycopy(from.price, 0, to.price, offset, n);
+    }
+
+    public int size() { return size; }
+
+    public long id(int row) { return ids[row]; }
+
+    public int squareFootage(int row) { return squareFootage[row]; }
+
+    public int bedrooms(int row) { return bedrooms[row]; }
+
+    public double bathrooms(int row) { return bathrooms[row]; }
+
+    public int yearBuilt(int row) { return yearBuilt[row]; }
+
+    public int lotSize(int row) { return lotSize[row]; }
+
+    public double distanceToCityCenter(int row) { return distanceToCityCenter[row]; }
+
+    public double schoolRating(int row) { return schoolRating[row]; }
+
+    public int price(int row) { return price[row]; }
+
+    /**
+     * Wrap existing column arrays without copying. Package-private for bulk loaders such as
+     * {@link HousingSnapshotFile}; the arrays must not be modified afterwards.
+     */
+    static HousingColumns wrap(int size, long[] ids, int[] squareFootage, int[] bedrooms, double[] bathrooms,
+                               int[] yearBuilt, int[] lotSize, double[] distanceToCityCenter,
+                               double[] schoolRating, int[] price) {
+        return new HousingColumns(size, ids, squareFootage, bedrooms, bathrooms, yearBuilt, lotSize,
+                distanceToCityCenter, schoolRating, price);
+    }
+
+    // Backing arrays, shared rather than copied, for bulk readers in this package such as the
+    // snapshot writer. They may be longer than size(); only the first size() entries belong to
+    // this view
+
+    long[] idColumn() { return ids; }
+
+    int[] squareFootageColumn() { return squareFootage; }
+
+    int[] bedroomsColumn() { return bedrooms; }
+
+    double[] bathroomsColumn() { return bathrooms; }
+
+    int[] yearBuiltColumn() { return yearBuilt; }
+
+    int[] lotSizeColumn() { return lotSize; }
+
+    double[] distanceToCityCenterColumn() { return distanceToCityCenter; }
+
+    double[] schoolRatingColumn() { return schoolRating; }
+
+    int[] priceColumn() { return price; }
+
+    /**
+     * Copy {@code length} values of {@code field}, starting at {@code row}, into {@code dest} from
+     * {@code destPos}, widening integer columns to double. Lets bulk readers outside this package
+     * loop over plain arrays without the columns handing out their own.
+     *
+     * @throws IndexOutOfBoundsException if the rows are not within {@link #size()} or do not fit in {@code dest}
+     */
+    public void copyColumn(HousingField field, int row, double[] dest, int destPos, int length) {
+        Objects.checkFromIndexSize(row, length, size);
+        Objects.checkFromIndexSize(destPos, length, dest.length);
+        switch (field) {
+            case SQUARE_FOOTAGE -> widen(squareFootage, row, dest, destPos, length);
+            case BEDROOMS -> widen(bedrooms, row, dest, destPos, length);
+            case BATHROOMS -> System.arraycopy(bathrooms, row, dest, destPos, length);
+            case YEAR_BUILT -> widen(yearBuilt, row, dest, destPos, length);
+            case LOT_SIZE -> widen(lotSize, row, dest, destPos, length);
+            case DISTANCE_TO_CITY_CENTER -> System.arraycopy(distanceToCityCenter, row, dest, destPos, length);
+            case SCHOOL_RATING -> System.arraycopy(schoolRating, row, dest, destPos, length);
+            case PRICE -> widen(price, row, dest, destPos, length);
+        }
+    }
+
+    private static void widen(int[] column, int row, double[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = column[row + i];
+        }
+    }
+
+    /**
+     * Materialize a single row as a {@link Housing} DTO.
+     */
+    public Housing toHousing(int row) {
+        return new Housing(ids[row], squareFootage[row], bedrooms[row], bathrooms[row],
+                yearBuilt[row], lotSize[row], distanceToCityCenter[row], schoolRating[row], price[row]);
+    }
+
+    /**
+     * Read-only list view that creates {@link Housing} objects on access instead of holding them.
+     */
+    public List<Housing> asList() {
+        return new HousingListView();
+    }
+
+    private final class HousingListView extends AbstractList<Housing> implements RandomAccess {
+        @Override
+        public Housing get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return toHousing(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class Tail {
+        int used;
+
+        Tail(int used) {
+            this.used = used;
+        }
+    }
+
+    /**
+     * Growable row-at-a-time builder used by the ingestion path.
+     */
+    public static final class Builder {
+        private int size;
+        private long[] ids;
+        private int[] squareFootage;
+        private int[] bedrooms;
+        private double[] bathrooms;
+        private int[] yearBuilt;
+        private int[] lotSize;
+        private double[] distanceToCityCenter;
+        private double[] schoolRating;
+        private int[] price;
+
+        private Builder(int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            ids = new long[capacity];
+            squareFootage = new int[capacity];
+            bedrooms = new int[capacity];
+            bathrooms = new double[capacity];
+            yearBuilt = new int[capacity];
+            lotSize = new int[capacity];
+            distanceToCityCenter = new double[capacity];
+            schoolRating = new double[capacity];
+            price = new int[capacity];
+        }
+
+        public Builder add(long id, int squareFootage, int bedrooms, double bathrooms, int yearBuilt,
+                           int lotSize, double distanceToCityCenter, double schoolRating, int price) {
+            if (size == ids.length) {
+                grow();
+            }
+            this.ids[size] = id;
+            this.squareFootage[size] = squareFootage;
+            this.bedrooms[size] = bedrooms;
+            this.bathrooms[size] = bathrooms;
+            this.yearBuilt[size] = yearBuilt;
+            this.lotSize[size] = lotSize;
+            this.distanceToCityCenter[size] = distanceToCityCenter;
+            this.schoolRating[size] = schoolRating;
+            this.price[size] = price;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public HousingColumns build() {
+            return new HousingColumns(size,
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(squareFootage, size),
+                    Arrays.copyOf(bedrooms, size),
+                    Arrays.copyOf(bathrooms, size),
+                    Arrays.copyOf(yearBuilt, size),
+                    Arrays.copyOf(lotSize, size),
+                    Arrays.copyOf(distanceToCityCenter, size),
+                    Arrays.copyOf(schoolRating, size),
+                    Arrays.copyOf(price, size));
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            squareFootage = Arrays.copyOf(squareFootage, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            bathrooms = Arrays.copyOf(bathrooms, capacity);
+            yearBuilt = Arrays.copyOf(yearBuilt, capacity);
+            lotSize = Arrays.copyOf(lotSize, capacity);
+            distanceToCityCenter = Arrays.copyOf(distanceToCityCenter, capacity);
+            schoolRating = Arrays.copyOf(schoolRating, capacity);
+            price = Arrays.copyOf(price, capacity);
+        }
+    }
+}
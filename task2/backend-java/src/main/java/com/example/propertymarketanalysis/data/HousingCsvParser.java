@@ -0,0 +1,285 @@
+package com.example.propertymarketanalysis.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Parses housing CSV straight from bytes into {@link HousingColumns}, without creating a
+ * {@code String} per line or per field. Files are memory-mapped; large ones are cut into chunks
+ * at line boundaries and the chunks are parsed in parallel, then joined in file order.
+ *
+ * <p>Rows follow the existing format: a header line, then
+ * {@code id,square_footage,bedrooms,bathrooms,year_built,lot_size,distance_to_city_center,school_rating,price}.
+ * Lines with fewer than nine fields are skipped; a malformed number fails the whole parse with a
+ * {@link NumberFormatException}.
+ */
+public final class HousingCsvParser {
+
+    public static final long DEFAULT_PARALLEL_THRESHOLD = 16L << 20;
+
+    // Keep every mapped region comfortably below the 2 GB ByteBuffer limit
+    private static final long MAX_CHUNK_BYTES = 512L << 20;
+    private static final int FIELDS = 9;
+    private static final int AVERAGE_ROW_BYTES = 48;
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+    private final int[] fieldStarts = new int[FIELDS];
+    private final int[] fieldEnds = new int[FIELDS];
+
+    private HousingCsvParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Parse an in-memory CSV document, header line included.
+     */
+    public static HousingColumns parse(byte[] content) {
+        return parse(ByteBuffer.wrap(content), true);
+    }
+
+    /**
+     * Memory-map and parse a CSV file, header line included.
+     */
+    public static HousingColumns parse(Path path) throws IOException {
+        return parse(path, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param parallelThreshold file size in bytes above which the file is parsed in parallel chunks
+     */
+    public static HousingColumns parse(Path path, long parallelThreshold) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<long[]> chunks = split(channel, size, parallelThreshold);
+            List<HousingColumns> parts = IntStream.range(0, chunks.size())
+                    .parallel()
+                    .mapToObj(i -> parseChunk(channel, chunks.get(i), i == 0))
+                    .toList();
+            return HousingColumns.concat(parts);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static HousingColumns parseChunk(FileChannel channel, long[] chunk, boolean skipHeader) {
+        try {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+            return parse(mapped, skipHeader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Cut the file into {@code [start, end)} byte ranges that each end just after a newline.
+     */
+    private static List<long[]> split(FileChannel channel, long size, long parallelThreshold) throws IOException {
+        int chunkCount = 1;
+        if (size > parallelThreshold) {
+            chunkCount = (int) Math.max(Runtime.getRuntime().availableProcessors(),
+                    (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        }
+        List<long[]> chunks = new ArrayList<>(chunkCount);
+        long start = 0;
+        for (int i = 1; i < chunkCount && start < size; i++) {
+            long end = nextLineStart(channel, Math.max(start, size * i / chunkCount), size);
+            if (end > start) {
+                chunks.add(new long[]{start, end});
+                start = end;
+            }
+        }
+        chunks.add(new long[]{start, size});
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static HousingColumns parse(ByteBuffer buffer, boolean skipHeader) {
+        HousingColumns.Builder builder = HousingColumns.builder(buffer.remaining() / AVERAGE_ROW_BYTES);
+        new HousingCsvParser(buffer).parseInto(builder, skipHeader);
+        return builder.build();
+    }
+
+    private void parseInto(HousingColumns.Builder builder, boolean skipHeader) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (skipHeader) {
+            position = lineEnd(position, limit) + 1;
+        }
+        while (position < limit) {
+            int lineEnd = lineEnd(position, limit);
+            int end = lineEnd;
+            if (end > position && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (splitFields(position, end)) {
+                builder.add(
+                        parseLong(0),
+                        parseInt(1),
+                        parseInt(2),
+                        parseDouble(3),
+                        parseInt(4),
+                        parseInt(5),
+                        parseDouble(6),
+                        parseDouble(7),
+                        parseInt(8));
+            }
+            position = lineEnd + 1;
+        }
+    }
+
+    private int lineEnd(int position, int limit) {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Record the trimmed byte range of the first nine fields; false if the line has fewer.
+     */
+    private boolean splitFields(int start, int end) {
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && field < FIELDS; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                int from = fieldStart;
+                int to = i;
+                while (from < to && isBlank(buffer.get(from))) {
+                    from++;
+                }
+                while (to > from && isBlank(buffer.get(to - 1))) {
+                    to--;
+                }
+                fieldStarts[field] = from;
+                fieldEnds[field] = to;
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        return field == FIELDS;
+    }
+
+    private int parseInt(int field) {
+        long value = parseLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalid(field);
+        }
+        return (int) value;
+    }
+
+    private long parseLong(int field) {
+        int i = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            throw invalid(field);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw invalid(field);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Plain decimals with at most 15 significant digits are exact in a double, as is the power of
+     * ten they are scaled by, so one IEEE division gives the correctly rounded result. Anything
+     * else (exponents, long mantissas, NaN/Infinity) falls back to {@link Double#parseDouble}.
+     */
+    private double parseDouble(int field) {
+        int i = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    significantDigits++;
+                }
+                if (significantDigits > MAX_FAST_PATH_DIGITS) {
+                    return slowParseDouble(field);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return slowParseDouble(field);
+            }
+        }
+        if (!seenDigit || scale >= POWERS_OF_TEN.length) {
+            return slowParseDouble(field);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double slowParseDouble(int field) {
+        return Double.parseDouble(text(field));
+    }
+
+    private String text(int field) {
+        byte[] bytes = new byte[fieldEnds[field] - fieldStarts[field]];
+        buffer.get(fieldStarts[field], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private NumberFormatException invalid(int field) {
+        return new NumberFormatException("For input string: \"" + text(field) + "\"");
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+}
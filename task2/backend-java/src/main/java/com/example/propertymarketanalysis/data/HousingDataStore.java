@@ -0,0 +1,519 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.Housing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the housing dataset in columnar form. The CSV is parsed once on first access (memory-mapped
+ * when it is a plain file, see {@link HousingCsvParser}) and the resulting {@link HousingDataset}
+ * is shared by every subsequent request until a reload or an {@link #append} swaps in different
+ * content. Both build a fresh snapshot and publish it with a single volatile write, so readers
+ * never wait on a change or observe a partially loaded dataset.
+ *
+ * <p>After each CSV parse the columns are also written to a binary {@link HousingSnapshotFile}
+ * (by default under {@code java.io.tmpdir}, never next to the source, which may be a build output
+ * or classpath directory). The first load after a restart hashes the CSV and maps that file
+ * instead of parsing, as long as the content fingerprint still matches; otherwise it falls back
+ * to the CSV and rewrites the snapshot.
+ *
+ * <p>The comparables k-d tree is built on first use. After that, publishing a new dataset
+ * rebuilds it on a background thread while {@link #neighbors()} keeps serving the previous tree,
+ * so a reload or append never makes a comparables request wait for the build.
+ *
+ * <p>Each load is timed as {@code housing.data.load}, tagged with whether it came from the
+ * snapshot or the CSV; {@code housing.data.rows} and {@code housing.data.version} report the
+ * current dataset without triggering a load.
+ */
+@Slf4j
+@Component
+public class HousingDataStore {
+
+    public static final String DEFAULT_LOCATION = "classpath:data/housing.csv";
+
+    private static final long FINGERPRINT_REGION_BYTES = 1L << 30;
+
+    private final Resource resource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean snapshotEnabled;
+    private final String snapshotLocation;
+    private final MeterRegistry meterRegistry;
+    // Single thread, so rebuilds never overlap and each publishes a tree at least as new as the last
+    private final Executor neighborsBuilder;
+    private final AtomicBoolean neighborsRebuildScheduled = new AtomicBoolean();
+    private final Object loadLock = new Object();
+    private final Object indexLock = new Object();
+    private final Object neighborsLock = new Object();
+    private volatile HousingDataset dataset;
+    private volatile HousingIndex index;
+    private volatile HousingNeighbors neighbors;
+    private long sourceLastModified;
+    private long sourceLength;
+
+    public HousingDataStore() {
+        this(DEFAULT_LOCATION);
+    }
+
+    public HousingDataStore(String location) {
+        this(location, null);
+    }
+
+    /**
+     * Store without a snapshot file, so nothing is written outside the source.
+     */
+    public HousingDataStore(String location, ApplicationEventPublisher eventPublisher) {
+        this(location, false, "", eventPublisher);
+    }
+
+    public HousingDataStore(String location, boolean snapshotEnabled, String snapshotLocation,
+                            ApplicationEventPublisher eventPublisher) {
+        this(location, snapshotEnabled, snapshotLocation, eventPublisher, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param snapshotLocation where to keep the binary snapshot; blank means a file under
+     *                         {@code java.io.tmpdir} named after the source
+     */
+    @Autowired
+    public HousingDataStore(@Value("${housing.data.location:" + DEFAULT_LOCATION + "}") String location,
+                            @Value("${housing.data.snapshot.enabled:true}") boolean snapshotEnabled,
+                            @Value("${housing.data.snapshot.location:}") String snapshotLocation,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+        this(location, snapshotEnabled, snapshotLocation, eventPublisher, meterRegistry,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("housing-neighbors").daemon().factory()));
+    }
+
+    HousingDataStore(String location, boolean snapshotEnabled, String snapshotLocation,
+                     ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, Executor neighborsBuilder) {
+        this.neighborsBuilder = neighborsBuilder;
+        this.resource = new DefaultResourceLoader().getResource(location);
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotLocation = snapshotLocation;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("housing.data.rows", this, store -> {
+                    HousingDataset current = store.dataset;
+                    return current == null ? Double.NaN : current.columns().size();
+                })
+                .description("Rows in the current housing dataset")
+                .register(meterRegistry);
+        Gauge.builder("housing.data.version", this, store -> {
+                    HousingDataset current = store.dataset;
+                    return current == null ? Double.NaN : current.version();
+                })
+                .description("Version of the current housing dataset")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the current dataset, parsing the CSV on first use. A failed load is not remembered,
+     * so the next call will try again.
+     */
+    public HousingDataset dataset() {
+        HousingDataset current = dataset;
+        if (current == null) {
+            synchronized (loadLock) {
+                current = dataset;
+                if (current == null) {
+                    current = load(1, true);
+                    dataset = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public HousingColumns columns() {
+        return dataset().columns();
+    }
+
+    /**
+     * Return the secondary indexes for the current dataset, building them on first use.
+     */
+    public HousingIndex index() {
+        HousingColumns current = columns();
+        HousingIndex currentIndex = index;
+        if (currentIndex == null || currentIndex.columns() != current) {
+            synchronized (indexLock) {
+                currentIndex = index;
+                if (currentIndex == null || currentIndex.columns() != current) {
+                    currentIndex = HousingIndex.build(current);
+                    index = currentIndex;
+                }
+            }
+        }
+        return currentIndex;
+    }
+
+    /**
+     * Return the comparables k-d tree. The first call builds it; later calls return the current tree
+     * at once, which may still cover the previous dataset while its replacement is being built.
+     */
+    public HousingNeighbors neighbors() {
+        HousingNeighbors currentNeighbors = neighbors;
+        if (currentNeighbors == null) {
+            synchronized (neighborsLock) {
+                currentNeighbors = neighbors;
+                if (currentNeighbors == null) {
+                    currentNeighbors = buildNeighbors(columns());
+                    neighbors = currentNeighbors;
+                }
+            }
+        } else if (currentNeighbors.columns() != columns()) {
+            rebuildNeighbors();
+        }
+        return currentNeighbors;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (neighborsBuilder instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Re-read the source. If its content fingerprint changed, the new version becomes current and
+     * a {@link HousingDatasetChangedEvent} is published; otherwise the existing version is kept.
+     */
+    public HousingDataset reload() {
+        HousingDataset previous;
+        HousingDataset loaded;
+        synchronized (loadLock) {
+            previous = dataset;
+            loaded = load(previous == null ? 1 : previous.version() + 1, false);
+            if (previous != null && previous.fingerprint().equals(loaded.fingerprint())) {
+                return previous;
+            }
+            dataset = loaded;
+        }
+        rebuildNeighbors();
+        if (previous != null && eventPublisher != null) {
+            eventPublisher.publishEvent(new HousingDatasetChangedEvent(previous, loaded));
+        }
+        return loaded;
+    }
+
+    /**
+     * Add records to the current dataset without re-reading the source. Rows are written into
+     * the spare capacity of the current columns where possible and folded into a copy of the
+     * running aggregate, so the cost is O(batch) rather than O(dataset). The new fingerprint is
+     * SHA-256 over the previous fingerprint and the batch, so the same appends on the same source
+     * always lead to the same fingerprint. Appended rows are held in memory only; the next reload
+     * from the source replaces them.
+     *
+     * @throws IllegalArgumentException if a record or one of its fields is missing
+     */
+    public HousingDataset append(List<Housing> records) {
+        HousingColumns batch = toColumns(records);
+        HousingDataset previous;
+        HousingDataset appended;
+        synchronized (loadLock) {
+            previous = dataset();
+            if (batch.size() == 0) {
+                return previous;
+            }
+            HousingAggregate aggregate = previous.aggregate().copy()
+                    .merge(new HousingAggregate().accumulate(batch, 0, batch.size()));
+            appended = new HousingDataset(previous.columns().append(batch),
+                    chainFingerprint(previous.fingerprint(), batch), previous.version() + 1, Instant.now(), aggregate);
+            dataset = appended;
+        }
+        rebuildNeighbors();
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new HousingDatasetChangedEvent(previous, appended));
+        }
+        return appended;
+    }
+
+    /**
+     * Reload only when the source's modification time or length differs from the last load.
+     */
+    public HousingDataset reloadIfModified() {
+        synchronized (loadLock) {
+            if (dataset != null && lastModified() == sourceLastModified && contentLength() == sourceLength) {
+                return dataset;
+            }
+        }
+        return reload();
+    }
+
+    /**
+     * Filesystem path of the source, or {@code null} when it is not a plain file (e.g. a classpath
+     * resource inside the jar) and so has to be read as a stream.
+     */
+    public Path sourcePath() {
+        if (!resource.isFile()) {
+            return null;
+        }
+        try {
+            return resource.getFile().toPath().toAbsolutePath();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Path to watch for changes, or {@code null} when the source should not be watched: anything
+     * that is not a plain file, and any {@code classpath:} location, which belongs to the build
+     * even when it resolves to a file in an exploded directory such as {@code target/classes}.
+     */
+    public Path watchPath() {
+        return resource instanceof ClassPathResource ? null : sourcePath();
+    }
+
+    /**
+     * Path of the binary snapshot, or {@code null} when snapshots are disabled. Without an explicit
+     * location each source gets its own file under {@code java.io.tmpdir}, keyed by a hash of the
+     * source's description so two sources with the same file name do not share a snapshot.
+     */
+    public Path snapshotPath() {
+        if (!snapshotEnabled) {
+            return null;
+        }
+        if (!snapshotLocation.isBlank()) {
+            return Path.of(snapshotLocation).toAbsolutePath();
+        }
+        String name = resource.getFilename() == null ? "housing" : resource.getFilename();
+        String key = HexFormat.of().formatHex(
+                sha256().digest(resource.getDescription().getBytes(StandardCharsets.UTF_8)), 0, 8);
+        return Path.of(System.getProperty("java.io.tmpdir"), "property-market-analysis",
+                name + "-" + key + ".snapshot").toAbsolutePath();
+    }
+
+    /**
+     * Bring the k-d tree up to date with the current dataset in the background, if one is in use.
+     * Publishes during a build collapse into one follow-up build of whatever is current by then.
+     */
+    private void rebuildNeighbors() {
+        if (neighbors == null || !neighborsRebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            neighborsBuilder.execute(() -> {
+                neighborsRebuildScheduled.set(false);
+                try {
+                    HousingColumns current = columns();
+                    if (neighbors.columns() != current) {
+                        neighbors = buildNeighbors(current);
+                    }
+                } catch (RuntimeException e) {
+                    // The previous tree stays in service; the next publish or request retries
+                    log.warn("Could not rebuild comparables index", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            neighborsRebuildScheduled.set(false);
+        }
+    }
+
+    private static HousingNeighbors buildNeighbors(HousingColumns columns) {
+        long start = System.nanoTime();
+        HousingNeighbors built = HousingNeighbors.build(columns);
+        log.info("Built comparables index over {} rows in {} ms", columns.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return built;
+    }
+
+    private HousingDataset load(long version, boolean preferSnapshot) {
+        long start = System.nanoTime();
+        long lastModified = lastModified();
+        long length = contentLength();
+        Path path = sourcePath();
+        Path snapshot = snapshotPath();
+        HousingColumns columns;
+        String fingerprint = null;
+
+        try {
+            byte[] content = null;
+            if (path == null) {
+                try (InputStream in = resource.getInputStream()) {
+                    content = in.readAllBytes();
+                }
+                fingerprint = HexFormat.of().formatHex(sha256().digest(content));
+            }
+
+            if (preferSnapshot && snapshot != null) {
+                // Hashing the source is far cheaper than parsing it, and is what proves the snapshot current
+                if (fingerprint == null) {
+                    fingerprint = fingerprint(path);
+                }
+                Optional<HousingSnapshotFile.Snapshot> stored = readSnapshot(snapshot, length, fingerprint);
+                if (stored.isPresent()) {
+                    sourceLastModified = lastModified;
+                    sourceLength = length;
+                    recordLoad("snapshot", start);
+                    return new HousingDataset(stored.get().columns(), fingerprint, version, Instant.now());
+                }
+            }
+
+            if (content != null) {
+                columns = HousingCsvParser.parse(content);
+            } else if (fingerprint != null) {
+                columns = HousingCsvParser.parse(path);
+            } else {
+                // Hash on another thread while the (possibly parallel) parse runs
+                CompletableFuture<String> pendingFingerprint = CompletableFuture.supplyAsync(() -> fingerprint(path));
+                columns = HousingCsvParser.parse(path);
+                fingerprint = pendingFingerprint.join();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Error reading housing data from CSV file", e);
+        } catch (CompletionException e) {
+            throw new RuntimeException("Error reading housing data from CSV file", e.getCause());
+        } catch (InternalError e) {
+            // A mapped file truncated while it is being read surfaces as an InternalError
+            throw new RuntimeException("Error reading housing data from CSV file", e);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Error parsing housing data from CSV file", e);
+        }
+
+        if (snapshot != null) {
+            writeSnapshot(snapshot, columns, fingerprint, length);
+        }
+        sourceLastModified = lastModified;
+        sourceLength = length;
+        recordLoad("csv", start);
+        return new HousingDataset(columns, fingerprint, version, Instant.now());
+    }
+
+    private void recordLoad(String source, long start) {
+        Timer.builder("housing.data.load")
+                .description("Time to load the housing dataset")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Optional<HousingSnapshotFile.Snapshot> readSnapshot(Path snapshot, long length, String fingerprint) {
+        try {
+            Optional<HousingSnapshotFile.Snapshot> stored = HousingSnapshotFile.read(snapshot, length, fingerprint);
+            if (stored.isPresent()) {
+                log.info("Loaded housing data from snapshot {}", snapshot);
+            }
+            return stored;
+        } catch (IOException | InternalError e) {
+            log.warn("Could not read housing snapshot {}, parsing CSV instead", snapshot, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeSnapshot(Path snapshot, HousingColumns columns, String fingerprint, long length) {
+        try {
+            HousingSnapshotFile.write(snapshot, columns, fingerprint, length);
+        } catch (IOException e) {
+            // Only startup time is lost; the dataset itself loaded fine
+            log.warn("Could not write housing snapshot {}", snapshot, e);
+        }
+    }
+
+    private static HousingColumns toColumns(List<Housing> records) {
+        HousingColumns.Builder builder = HousingColumns.builder(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Housing h = records.get(i);
+            if (h == null || h.getId() == null || h.getSquareFootage() == null || h.getBedrooms() == null
+                    || h.getBathrooms() == null || h.getYearBuilt() == null || h.getLotSize() == null
+                    || h.getDistanceToCityCenter() == null || h.getSchoolRating() == null || h.getPrice() == null) {
+                throw new IllegalArgumentException("Housing record " + i + " is missing one or more fields");
+            }
+            builder.add(h.getId(), h.getSquareFootage(), h.getBedrooms(), h.getBathrooms(), h.getYearBuilt(),
+                    h.getLotSize(), h.getDistanceToCityCenter(), h.getSchoolRating(), h.getPrice());
+        }
+        return builder.build();
+    }
+
+    private static String chainFingerprint(String previous, HousingColumns batch) {
+        MessageDigest digest = sha256();
+        digest.update(previous.getBytes(StandardCharsets.US_ASCII));
+        ByteBuffer row = ByteBuffer.allocate(Long.BYTES * 5 + Integer.BYTES * 4);
+        for (int i = 0; i < batch.size(); i++) {
+            row.clear();
+            row.putLong(batch.id(i))
+                    .putInt(batch.squareFootage(i))
+                    .putInt(batch.bedrooms(i))
+                    .putDouble(batch.bathrooms(i))
+                    .putInt(batch.yearBuilt(i))
+                    .putInt(batch.lotSize(i))
+                    .putDouble(batch.distanceToCityCenter(i))
+                    .putDouble(batch.schoolRating(i))
+                    .putLong(batch.price(i))
+                    .flip();
+            digest.update(row);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String fingerprint(Path path) {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += FINGERPRINT_REGION_BYTES) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(FINGERPRINT_REGION_BYTES, size - position)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private long contentLength() {
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
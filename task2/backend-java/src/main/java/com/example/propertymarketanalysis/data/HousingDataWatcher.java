@@ -0,0 +1,114 @@
+package com.example.propertymarketanalysis.data;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the housing CSV on disk and reloads the {@link HousingDataStore} in the background when
+ * it changes. Bursts of events (an editor rewriting the file, a copy in progress) are collapsed
+ * by waiting for a quiet period before re-ingesting. Only active when the data location is a
+ * filesystem path ({@code file:} or a bare path); {@code classpath:} locations are never watched,
+ * whether they resolve inside a jar or to an exploded build directory.
+ */
+@Slf4j
+@Component
+public class HousingDataWatcher {
+
+    private final HousingDataStore housingDataStore;
+    private final boolean enabled;
+    private final Duration debounce;
+    private WatchService watchService;
+    private Thread thread;
+
+    public HousingDataWatcher(HousingDataStore housingDataStore,
+                              @Value("${housing.data.watch.enabled:true}") boolean enabled,
+                              @Value("${housing.data.watch.debounce:500ms}") Duration debounce) {
+        this.housingDataStore = housingDataStore;
+        this.enabled = enabled;
+        this.debounce = debounce;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path source = housingDataStore.watchPath();
+        if (!enabled || source == null || source.getParent() == null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        // Watch the directory so replacing the file by rename is seen as well as in-place writes
+        source.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = Thread.ofPlatform().name("housing-data-watcher").daemon().start(() -> watch(source));
+        log.info("Watching {} for housing data changes", source);
+    }
+
+    public boolean isWatching() {
+        return thread != null && thread.isAlive();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void watch(Path source) {
+        Path fileName = source.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key, fileName);
+                // Keep absorbing events until the file has been quiet for the debounce period
+                while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(key, fileName);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean drain(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        try {
+            // A full reload rather than a metadata check: a rename can keep the old mtime and size,
+            // and the fingerprint comparison already skips swaps when nothing actually changed
+            HousingDataset dataset = housingDataStore.reload();
+            log.info("Housing data at version {} ({} rows)", dataset.version(), dataset.columns().size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous version; the next change event will retry
+            log.warn("Housing data reload failed, keeping current version", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.propertymarketanalysis.data;
+
+import java.time.Instant;
+
+/**
+ * One loaded version of the housing dataset.
+ *
+ * @param columns     the rows in columnar form
+ * @param fingerprint hex SHA-256 of the source bytes, computed once while loading; appended
+ *                    batches chain onto it (see {@link HousingDataStore#append})
+ * @param version     load generation, incremented each time different content is swapped in
+ * @param loadedAt    when this version became current
+ * @param aggregate   running statistics over {@code columns}; shared, so treat as read-only
+ */
+public record HousingDataset(HousingColumns columns, String fingerprint, long version, Instant loadedAt,
+                             HousingAggregate aggregate) {
+
+    /**
+     * Create a dataset, aggregating {@code columns} from scratch.
+     */
+    public HousingDataset(HousingColumns columns, String fingerprint, long version, Instant loadedAt) {
+        this(columns, fingerprint, version, loadedAt, HousingAggregator.aggregate(columns));
+    }
+}
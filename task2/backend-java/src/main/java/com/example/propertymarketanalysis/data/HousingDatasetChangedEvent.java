@@ -0,0 +1,7 @@
+package com.example.propertymarketanalysis.data;
+
+/**
+ * Published when a reload swaps in housing data whose content differs from the previous version.
+ */
+public record HousingDatasetChangedEvent(HousingDataset previous, HousingDataset current) {
+}
@@ -0,0 +1,61 @@
+package com.example.propertymarketanalysis.data;
+
+/**
+ * Ways of breaking the housing dataset into groups. Each dimension buckets one numeric
+ * {@link HousingField} into fixed-width intervals, and a row's group key is the index of its
+ * interval, so groups can be held in an array indexed by key.
+ */
+public enum HousingDimension {
+    BEDROOMS(HousingField.BEDROOMS, 1),
+    YEAR_BUILT_DECADE(HousingField.YEAR_BUILT, 10),
+    DISTANCE_BAND(HousingField.DISTANCE_TO_CITY_CENTER, 2),
+    SCHOOL_RATING_BUCKET(HousingField.SCHOOL_RATING, 1);
+
+    private final HousingField field;
+    private final double width;
+
+    HousingDimension(HousingField field, double width) {
+        this.field = field;
+        this.width = width;
+    }
+
+    public HousingField field() {
+        return field;
+    }
+
+    /**
+     * Group key of a value of {@link #field()}: the index of the interval containing it.
+     */
+    public int key(double value) {
+        return (int) Math.floor(value / width);
+    }
+
+    public int key(HousingColumns columns, int row) {
+        return key(field.value(columns, row));
+    }
+
+    /**
+     * Inclusive lower bound of the group.
+     */
+    public double lowerBound(int key) {
+        return key * width;
+    }
+
+    /**
+     * Exclusive upper bound of the group.
+     */
+    public double upperBound(int key) {
+        return (key + 1) * width;
+    }
+
+    /**
+     * Display name of the group, e.g. {@code 3}, {@code 1990s} or {@code 2-4}.
+     */
+    public String label(int key) {
+        return switch (this) {
+            case BEDROOMS -> Integer.toString(key);
+            case YEAR_BUILT_DECADE -> (int) lowerBound(key) + "s";
+            case DISTANCE_BAND, SCHOOL_RATING_BUCKET -> (int) lowerBound(key) + "-" + (int) upperBound(key);
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.propertymarketanalysis.data;
+
+/**
+ * Numeric columns of the housing dataset, in the order the aggregation engine stores them.
+ */
+public enum HousingField {
+    SQUARE_FOOTAGE("squareFootage"),
+    BEDROOMS("bedrooms"),
+    BATHROOMS("bathrooms"),
+    YEAR_BUILT("yearBuilt"),
+    LOT_SIZE("lotSize"),
+    DISTANCE_TO_CITY_CENTER("distanceToCityCenter"),
+    SCHOOL_RATING("schoolRating"),
+    PRICE("price");
+
+    private final String propertyName;
+
+    HousingField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * Name of the matching {@link com.example.propertymarketanalysis.dto.Housing} property.
+     */
+    public String propertyName() {
+        return propertyName;
+    }
+
+    public double value(HousingColumns columns, int row) {
+        return switch (this) {
+            case SQUARE_FOOTAGE -> columns.squareFootage(row);
+            case BEDROOMS -> columns.bedrooms(row);
+            case BATHROOMS -> columns.bathrooms(row);
+            case YEAR_BUILT -> columns.yearBuilt(row);
+            case LOT_SIZE -> columns.lotSize(row);
+            case DISTANCE_TO_CITY_CENTER -> columns.distanceToCityCenter(row);
+            case SCHOOL_RATING -> columns.schoolRating(row);
+            case PRICE -> columns.price(row);
+        };
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.propertymarketanalysis.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes one {@link HousingAggregate} per group of a {@link HousingDimension}. Like
+ * {@link HousingAggregator}, small datasets are grouped on the calling thread and larger ones are
+ * split into row ranges on the common fork-join pool, each task building its own partial groups
+ * that are merged on the way back up.
+ *
+ * <p>The dataset's overall min and max of the grouped field give the range of possible keys, so
+ * partial groups live in an array indexed by key. Ranges wider than {@link #MAX_DENSE_GROUPS}
+ * (outliers in the data) fall back to a hash map. Group aggregates track moments only.
+ */
+public final class HousingGrouper {
+
+    public static final int MAX_DENSE_GROUPS = 1 << 12;
+
+    private HousingGrouper() {
+    }
+
+    /**
+     * @param aggregate statistics over all of {@code columns}, used for the key range
+     * @return aggregates of the non-empty groups, by group key
+     */
+    public static NavigableMap<Integer, HousingAggregate> group(HousingColumns columns, HousingAggregate aggregate,
+                                                                HousingDimension dimension) {
+        return group(columns, aggregate, dimension, HousingAggregator.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param parallelThreshold row count below which a range is grouped sequentially
+     */
+    public static NavigableMap<Integer, HousingAggregate> group(HousingColumns columns, HousingAggregate aggregate,
+                                                                HousingDimension dimension, int parallelThreshold) {
+        if (columns.size() == 0) {
+            return new TreeMap<>();
+        }
+        int minKey = dimension.key(aggregate.min(dimension.field()));
+        int maxKey = dimension.key(aggregate.max(dimension.field()));
+        int threshold = Math.max(parallelThreshold, 1);
+        Groups groups = columns.size() <= threshold
+                ? new Groups(minKey, maxKey).accumulate(columns, dimension, 0, columns.size())
+                : ForkJoinPool.commonPool().invoke(
+                        new GroupTask(columns, dimension, minKey, maxKey, 0, columns.size(), threshold));
+        return groups.toMap();
+    }
+
+    /**
+     * Partial groups over one row range: an array slot per key in the expected range, and a
+     * lazily created map for any key outside it.
+     */
+    private static final class Groups {
+        private final int minKey;
+        private final HousingAggregate[] dense;
+        private Map<Integer, HousingAggregate> sparse;
+
+        Groups(int minKey, int maxKey) {
+            long span = (long) maxKey - minKey + 1;
+            this.minKey = minKey;
+            this.dense = new HousingAggregate[span > 0 && span <= MAX_DENSE_GROUPS ? (int) span : 0];
+        }
+
+        Groups accumulate(HousingColumns columns, HousingDimension dimension, int from, int to) {
+            for (int row = from; row < to; row++) {
+                group(dimension.key(columns, row)).accumulate(columns, row, row + 1);
+            }
+            return this;
+        }
+
+        HousingAggregate group(int key) {
+            int slot = key - minKey;
+            if (slot >= 0 && slot < dense.length) {
+                HousingAggregate group = dense[slot];
+                if (group == null) {
+                    group = HousingAggregate.withoutSketches();
+                    dense[slot] = group;
+                }
+                return group;
+            }
+            if (sparse == null) {
+                sparse = new HashMap<>();
+            }
+            return sparse.computeIfAbsent(key, ignored -> HousingAggregate.withoutSketches());
+        }
+
+        Groups merge(Groups other) {
+            for (int slot = 0; slot < other.dense.length; slot++) {
+                if (other.dense[slot] != null) {
+                    group(other.minKey + slot).merge(other.dense[slot]);
+                }
+            }
+            if (other.sparse != null) {
+                other.sparse.forEach((key, group) -> group(key).merge(group));
+            }
+            return this;
+        }
+
+        NavigableMap<Integer, HousingAggregate> toMap() {
+            NavigableMap<Integer, HousingAggregate> groups = new TreeMap<>();
+            for (int slot = 0; slot < dense.length; slot++) {
+                if (dense[slot] != null) {
+                    groups.put(minKey + slot, dense[slot]);
+                }
+            }
+            if (sparse != null) {
+                groups.putAll(sparse);
+            }
+            return groups;
+        }
+    }
+
+    private static final class GroupTask extends RecursiveTask<Groups> {
+        private final HousingColumns columns;
+        private final HousingDimension dimension;
+        private final int minKey;
+        private final int maxKey;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        GroupTask(HousingColumns columns, HousingDimension dimension, int minKey, int maxKey,
+                  int from, int to, int threshold) {
+            this.columns = columns;
+            this.dimension = dimension;
+            this.minKey = minKey;
+            this.maxKey = maxKey;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from <= threshold) {
+                return new Groups(minKey, maxKey).accumulate(columns, dimension, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            GroupTask left = new GroupTask(columns, dimension, minKey, maxKey, from, middle, threshold);
+            left.fork();
+            Groups right = new GroupTask(columns, dimension, minKey, maxKey, middle, to, threshold).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.HousingQuery;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary indexes over a {@link HousingColumns} snapshot. Range columns keep their row ids
+ * sorted by value so a bound becomes two binary searches; low-cardinality columns (bedrooms,
+ * bathrooms) keep one bitmap per distinct value. Combined predicates are intersected starting
+ * from the most selective one.
+ */
+public final class HousingIndex {
+
+    private static final List<HousingField> RANGE_FIELDS = List.of(
+            HousingField.PRICE,
+            HousingField.SQUARE_FOOTAGE,
+            HousingField.YEAR_BUILT,
+            HousingField.DISTANCE_TO_CITY_CENTER,
+            HousingField.SCHOOL_RATING);
+
+    // Below this ratio it is cheaper to test candidate rows directly than to build another bitmap
+    private static final int PROBE_RATIO = 32;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private final HousingColumns columns;
+    private final Map<HousingField, SortedColumn> sortedColumns;
+    private final Map<Integer, BitSet> bedroomBitmaps = new HashMap<>();
+    private final Map<Double, BitSet> bathroomBitmaps = new HashMap<>();
+
+    private HousingIndex(HousingColumns columns) {
+        this.columns = columns;
+        this.sortedColumns = new EnumMap<>(RANGE_FIELDS.parallelStream()
+                .collect(Collectors.toMap(Function.identity(), field -> new SortedColumn(columns, field))));
+        for (int row = 0; row < columns.size(); row++) {
+            bedroomBitmaps.computeIfAbsent(columns.bedrooms(row), key -> new BitSet()).set(row);
+            bathroomBitmaps.computeIfAbsent(columns.bathrooms(row), key -> new BitSet()).set(row);
+        }
+    }
+
+    public static HousingIndex build(HousingColumns columns) {
+        return new HousingIndex(columns);
+    }
+
+    public HousingColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Row ids matching every predicate of the query, in ascending order.
+     */
+    public int[] select(HousingQuery query) {
+        List<Predicate> predicates = predicates(query);
+        if (predicates.isEmpty()) {
+            return IntStream.range(0, columns.size()).toArray();
+        }
+        predicates.sort(Comparator.comparingInt(Predicate::cardinality));
+
+        BitSet result = predicates.get(0).bits();
+        for (int i = 1; i < predicates.size() && !result.isEmpty(); i++) {
+            Predicate next = predicates.get(i);
+            if ((long) result.cardinality() * PROBE_RATIO < next.cardinality()) {
+                for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                    if (!next.matches(row)) {
+                        result.clear(row);
+                    }
+                }
+            } else {
+                result.and(next.bits());
+            }
+        }
+        return result.stream().toArray();
+    }
+
+    private List<Predicate> predicates(HousingQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
+        addRange(predicates, HousingField.PRICE, query.getMinPrice(), query.getMaxPrice());
+        addRange(predicates, HousingField.SQUARE_FOOTAGE, query.getMinSquareFootage(), query.getMaxSquareFootage());
+        addRange(predicates, HousingField.YEAR_BUILT, query.getMinYearBuilt(), query.getMaxYearBuilt());
+        addRange(predicates, HousingField.DISTANCE_TO_CITY_CENTER,
+                query.getMinDistanceToCityCenter(), query.getMaxDistanceToCityCenter());
+        addRange(predicates, HousingField.SCHOOL_RATING, query.getMinSchoolRating(), query.getMaxSchoolRating());
+        if (query.getBedrooms() != null) {
+            predicates.add(new BitmapPredicate(HousingField.BEDROOMS, query.getBedrooms(),
+                    bedroomBitmaps.getOrDefault(query.getBedrooms(), new BitSet())));
+        }
+        if (query.getBathrooms() != null) {
+            predicates.add(new BitmapPredicate(HousingField.BATHROOMS, query.getBathrooms(),
+                    bathroomBitmaps.getOrDefault(query.getBathrooms(), new BitSet())));
+        }
+        return predicates;
+    }
+
+    private void addRange(List<Predicate> predicates, HousingField field, Double min, Double max) {
+        if (min == null && max == null) {
+            return;
+        }
+        predicates.add(new RangePredicate(sortedColumns.get(field),
+                min != null ? min : Double.NEGATIVE_INFINITY,
+                max != null ? max : Double.POSITIVE_INFINITY));
+    }
+
+    private interface Predicate {
+        int cardinality();
+
+        BitSet bits();
+
+        boolean matches(int row);
+    }
+
+    private final class RangePredicate implements Predicate {
+        private final SortedColumn column;
+        private final double min;
+        private final double max;
+        private final int from;
+        private final int to;
+
+        RangePredicate(SortedColumn column, double min, double max) {
+            this.column = column;
+            this.min = min;
+            this.max = max;
+            this.from = column.lowerBound(min);
+            this.to = Math.max(from, column.upperBound(max));
+        }
+
+        @Override
+        public int cardinality() {
+            return to - from;
+        }
+
+        @Override
+        public BitSet bits() {
+            BitSet bits = new BitSet(columns.size());
+            for (int i = from; i < to; i++) {
+                bits.set(column.rows[i]);
+            }
+            return bits;
+        }
+
+        @Override
+        public boolean matches(int row) {
+            double value = column.field.value(columns, row);
+            return value >= min && value <= max;
+        }
+    }
+
+    private final class BitmapPredicate implements Predicate {
+        private final HousingField field;
+        private final double value;
+        private final BitSet bitmap;
+        private final int cardinality;
+
+        BitmapPredicate(HousingField field, double value, BitSet bitmap) {
+            this.field = field;
+            this.value = value;
+            this.bitmap = bitmap;
+            this.cardinality = bitmap.cardinality();
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public BitSet bits() {
+            return (BitSet) bitmap.clone();
+        }
+
+        @Override
+        public boolean matches(int row) {
+            return field.value(columns, row) == value;
+        }
+    }
+
+    /**
+     * Row ids of one column ordered by value, with the values laid out alongside for binary search.
+     */
+    private static final class SortedColumn {
+        private final HousingField field;
+        private final int[] rows;
+        private final double[] values;
+
+        SortedColumn(HousingColumns columns, HousingField field) {
+            int size = columns.size();
+            double[] columnValues = new double[size];
+            for (int row = 0; row < size; row++) {
+                columnValues[row] = field.value(columns, row);
+            }
+            this.field = field;
+            this.rows = IntStream.range(0, size).toArray();
+            sort(rows, new int[size], columnValues, 0, size);
+            this.values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = columnValues[rows[i]];
+            }
+        }
+
+        int lowerBound(double min) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < min) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int upperBound(double max) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] <= max) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // Stable merge sort of row ids by value, avoiding boxed comparators
+        private static void sort(int[] rows, int[] buffer, double[] values, int from, int to) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                for (int i = from + 1; i < to; i++) {
+                    int row = rows[i];
+                    int j = i - 1;
+                    while (j >= from && values[rows[j]] > values[row]) {
+                        rows[j + 1] = rows[j];
+                        j--;
+                    }
+                    rows[j + 1] = row;
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            sort(rows, buffer, values, from, middle);
+            sort(rows, buffer, values, middle, to);
+            if (values[rows[middle - 1]] <= values[rows[middle]]) {
+                return;
+            }
+            System.arraycopy(rows, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && values[buffer[left]] <= values[buffer[right]])) {
+                    rows[i] = buffer[left++];
+                } else {
+                    rows[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
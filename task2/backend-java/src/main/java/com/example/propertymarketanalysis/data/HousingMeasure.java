@@ -0,0 +1,37 @@
+package com.example.propertymarketanalysis.data;
+
+/**
+ * Skewed housing measures whose distribution is tracked with a {@link QuantileSketch}, so
+ * medians and percentiles can be reported alongside the means in {@link HousingAggregate}.
+ */
+public enum HousingMeasure {
+    PRICE("price"),
+    SQUARE_FOOTAGE("squareFootage"),
+    LOT_SIZE("lotSize"),
+    PRICE_PER_SQUARE_FOOT("pricePerSquareFoot");
+
+    private final String propertyName;
+
+    HousingMeasure(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String propertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Value for one row, or {@code NaN} when it is undefined (price per square foot of a
+     * zero-size listing).
+     */
+    public double value(HousingColumns columns, int row) {
+        return switch (this) {
+            case PRICE -> columns.price(row);
+            case SQUARE_FOOTAGE -> columns.squareFootage(row);
+            case LOT_SIZE -> columns.lotSize(row);
+            case PRICE_PER_SQUARE_FOOT -> columns.squareFootage(row) > 0
+                    ? (double) columns.price(row) / columns.squareFootage(row)
+                    : Double.NaN;
+        };
+    }
+}
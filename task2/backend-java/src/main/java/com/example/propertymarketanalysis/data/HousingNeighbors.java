@@ -0,0 +1,346 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * k-d tree over the property features of a {@link HousingColumns} snapshot (everything but the
+ * price), for finding the most similar listings to a subject property. Each feature is scaled to
+ * unit standard deviation so that square feet and school rating weigh the same, and similarity is
+ * Euclidean distance in that space. A feature the subject leaves out is ignored rather than
+ * matched against zero.
+ *
+ * <p>The tree is implicit: points are reordered so that every node covers a contiguous range split
+ * at its midpoint, and only the split dimension and value are stored per node. Coordinates are kept
+ * as floats in tree order, so a leaf scan reads consecutive memory; at 10M rows that is about
+ * 280 MB of coordinates plus 40 MB of row ids. Large subtrees are built in parallel.
+ */
+public final class HousingNeighbors {
+
+    /** Features indexed, in coordinate order. */
+    private static final HousingField[] FEATURES = {
+            HousingField.SQUARE_FOOTAGE,
+            HousingField.BEDROOMS,
+            HousingField.BATHROOMS,
+            HousingField.YEAR_BUILT,
+            HousingField.LOT_SIZE,
+            HousingField.DISTANCE_TO_CITY_CENTER,
+            HousingField.SCHOOL_RATING};
+    private static final int DIMENSIONS = FEATURES.length;
+    private static final int LEAF_SIZE = 16;
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 16;
+
+    /**
+     * A row of the indexed columns and its distance from the subject.
+     */
+    public record Neighbor(int row, double distance) {
+    }
+
+    private final HousingColumns columns;
+    private final double[] means = new double[DIMENSIONS];
+    private final double[] scales = new double[DIMENSIONS];
+    // rows[i] is the row whose coordinates start at coordinates[i * DIMENSIONS]
+    private final int[] rows;
+    private final float[] coordinates;
+    // Per internal node, numbered heap-style from the root at 0
+    private final byte[] splitDimensions;
+    private final float[] splitValues;
+
+    private HousingNeighbors(HousingColumns columns) {
+        this.columns = columns;
+        int size = columns.size();
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double sum = 0;
+            double sumOfSquares = 0;
+            for (int row = 0; row < size; row++) {
+                double value = FEATURES[d].value(columns, row);
+                sum += value;
+                sumOfSquares += value * value;
+            }
+            means[d] = size == 0 ? 0 : sum / size;
+            double variance = size == 0 ? 0 : sumOfSquares / size - means[d] * means[d];
+            scales[d] = variance > 0 ? 1 / Math.sqrt(variance) : 1;
+        }
+
+        rows = new int[size];
+        coordinates = new float[size * DIMENSIONS];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                coordinates[row * DIMENSIONS + d] = (float) ((FEATURES[d].value(columns, row) - means[d]) * scales[d]);
+            }
+        }
+
+        int depth = 0;
+        for (long rangeSize = size; rangeSize > LEAF_SIZE; rangeSize = (rangeSize + 1) / 2) {
+            depth++;
+        }
+        splitDimensions = new byte[1 << depth];
+        splitValues = new float[1 << depth];
+        ForkJoinPool.commonPool().invoke(new Build(0, 0, size));
+    }
+
+    public static HousingNeighbors build(HousingColumns columns) {
+        return new HousingNeighbors(columns);
+    }
+
+    public HousingColumns columns() {
+        return columns;
+    }
+
+    /**
+     * The {@code k} rows closest to {@code subject}, nearest first.
+     *
+     * @throws IllegalArgumentException if the subject has none of the indexed features
+     */
+    public List<Neighbor> nearest(PropertyFeatures subject, int k) {
+        float[] query = new float[DIMENSIONS];
+        float[] weights = new float[DIMENSIONS];
+        boolean any = false;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            Number value = feature(subject, FEATURES[d]);
+            if (value != null) {
+                query[d] = (float) ((value.doubleValue() - means[d]) * scales[d]);
+                weights[d] = 1;
+                any = true;
+            }
+        }
+        if (!any) {
+            throw new IllegalArgumentException("At least one property feature is needed to find comparables");
+        }
+
+        Candidates candidates = new Candidates(Math.min(k, rows.length));
+        if (candidates.capacity > 0) {
+            search(0, 0, rows.length, query, weights, candidates);
+        }
+        return candidates.drain();
+    }
+
+    private void search(int node, int from, int to, float[] query, float[] weights, Candidates candidates) {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to; i++) {
+                float distance = 0;
+                int offset = i * DIMENSIONS;
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    float diff = (query[d] - coordinates[offset + d]) * weights[d];
+                    distance += diff * diff;
+                }
+                candidates.offer(i, distance);
+            }
+            return;
+        }
+        int dimension = splitDimensions[node];
+        float diff = (query[dimension] - splitValues[node]) * weights[dimension];
+        int middle = (from + to) >>> 1;
+        if (diff <= 0) {
+            search(2 * node + 1, from, middle, query, weights, candidates);
+            if (diff * diff < candidates.worst()) {
+                search(2 * node + 2, middle, to, query, weights, candidates);
+            }
+        } else {
+            search(2 * node + 2, middle, to, query, weights, candidates);
+            if (diff * diff < candidates.worst()) {
+                search(2 * node + 1, from, middle, query, weights, candidates);
+            }
+        }
+    }
+
+    private static Number feature(PropertyFeatures subject, HousingField field) {
+        return switch (field) {
+            case SQUARE_FOOTAGE -> subject.getSquareFootage();
+            case BEDROOMS -> subject.getBedrooms();
+            case BATHROOMS -> subject.getBathrooms();
+            case YEAR_BUILT -> subject.getYearBuilt();
+            case LOT_SIZE -> subject.getLotSize();
+            case DISTANCE_TO_CITY_CENTER -> subject.getDistanceToCityCenter();
+            case SCHOOL_RATING -> subject.getSchoolRating();
+            case PRICE -> null;
+        };
+    }
+
+    /**
+     * Splits {@code [from, to)} at its midpoint along the dimension with the widest spread, so
+     * {@code [from, middle)} holds the values at or below the split and {@code [middle, to)} the rest.
+     */
+    private final class Build extends RecursiveAction {
+        private final int node;
+        private final int from;
+        private final int to;
+
+        Build(int node, int from, int to) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                return;
+            }
+            int dimension = widestDimension();
+            int middle = (from + to) >>> 1;
+            select(dimension, middle);
+            splitDimensions[node] = (byte) dimension;
+            splitValues[node] = coordinates[middle * DIMENSIONS + dimension];
+
+            Build left = new Build(2 * node + 1, from, middle);
+            Build right = new Build(2 * node + 2, middle, to);
+            if (to - from >= PARALLEL_BUILD_THRESHOLD) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+        }
+
+        private int widestDimension() {
+            float[] min = new float[DIMENSIONS];
+            float[] max = new float[DIMENSIONS];
+            System.arraycopy(coordinates, from * DIMENSIONS, min, 0, DIMENSIONS);
+            System.arraycopy(coordinates, from * DIMENSIONS, max, 0, DIMENSIONS);
+            for (int i = from + 1; i < to; i++) {
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    float value = coordinates[i * DIMENSIONS + d];
+                    min[d] = Math.min(min[d], value);
+                    max[d] = Math.max(max[d], value);
+                }
+            }
+            int widest = 0;
+            for (int d = 1; d < DIMENSIONS; d++) {
+                if (max[d] - min[d] > max[widest] - min[widest]) {
+                    widest = d;
+                }
+            }
+            return widest;
+        }
+
+        /**
+         * Quickselect: moves the point of rank {@code target} along {@code dimension} into place,
+         * with smaller or equal values before it and larger or equal ones after. Partitions three
+         * ways, since bedrooms and bathrooms repeat a handful of values across millions of rows.
+         */
+        private void select(int dimension, int target) {
+            int low = from;
+            int high = to - 1;
+            while (low < high) {
+                float a = value(low, dimension);
+                float b = value((low + high) >>> 1, dimension);
+                float c = value(high, dimension);
+                float pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+                // [low, less) < pivot, [less, i) == pivot, (greater, high] > pivot
+                int less = low;
+                int greater = high;
+                int i = low;
+                while (i <= greater) {
+                    float value = value(i, dimension);
+                    if (value < pivot) {
+                        swap(less++, i++);
+                    } else if (value > pivot) {
+                        swap(i, greater--);
+                    } else {
+                        i++;
+                    }
+                }
+                if (target < less) {
+                    high = less - 1;
+                } else if (target > greater) {
+                    low = greater + 1;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private float value(int i, int dimension) {
+            return coordinates[i * DIMENSIONS + dimension];
+        }
+
+        private void swap(int i, int j) {
+            if (i == j) {
+                return;
+            }
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                float value = coordinates[i * DIMENSIONS + d];
+                coordinates[i * DIMENSIONS + d] = coordinates[j * DIMENSIONS + d];
+                coordinates[j * DIMENSIONS + d] = value;
+            }
+        }
+    }
+
+    /**
+     * The best {@code capacity} points seen so far, as a max-heap on squared distance.
+     */
+    private final class Candidates {
+        private final int capacity;
+        private final int[] points;
+        private final float[] distances;
+        private int size;
+
+        Candidates(int capacity) {
+            this.capacity = capacity;
+            this.points = new int[capacity];
+            this.distances = new float[capacity];
+        }
+
+        float worst() {
+            return size < capacity ? Float.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int point, float distance) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    points[i] = points[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                points[i] = point;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                siftDown(point, distance);
+            }
+        }
+
+        /** Empties the heap into a list ordered nearest first. */
+        List<Neighbor> drain() {
+            Neighbor[] nearest = new Neighbor[size];
+            while (size > 0) {
+                nearest[size - 1] = new Neighbor(rows[points[0]], Math.sqrt(distances[0]));
+                size--;
+                if (size > 0) {
+                    siftDown(points[size], distances[size]);
+                }
+            }
+            return new ArrayList<>(List.of(nearest));
+        }
+
+        private void siftDown(int point, float distance) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                points[i] = points[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            points[i] = point;
+            distances[i] = distance;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.propertymarketanalysis.data;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary, column-oriented image of a {@link HousingColumns} snapshot, written after a CSV ingest
+ * so the next start can memory-map it instead of parsing text.
+ *
+ * <p>Layout (little-endian): a fixed 64-byte header holding the magic {@code HSNP}, format
+ * version, row count, schema length, the source CSV's length, its SHA-256 fingerprint and a
+ * CRC32C of the column data; then the schema string; then the nine columns as raw primitive
+ * arrays, each starting on an 8-byte boundary.
+ *
+ * <p>{@link #read} only returns a snapshot that was taken from a source with the given length and
+ * content fingerprint, whose schema matches this build and whose checksum verifies. Anything else
+ * (missing, stale, truncated, corrupt) reads as empty so the caller falls back to the CSV. The
+ * source's modification time plays no part, so copying or touching the CSV keeps the snapshot
+ * usable and an edit that preserves length and mtime still invalidates it.
+ */
+public final class HousingSnapshotFile {
+
+    public static final int FORMAT_VERSION = 2;
+
+    static final String SCHEMA = "id:i64,square_footage:i32,bedrooms:i32,bathrooms:f64,year_built:i32,"
+            + "lot_size:i32,distance_to_city_center:f64,school_rating:f64,price:i32";
+
+    private static final int MAGIC = 0x504E5348; // "HSNP" read little-endian
+    private static final int HEADER_BYTES = 64;
+    private static final int FINGERPRINT_BYTES = 32;
+    private static final byte[] SCHEMA_BYTES = SCHEMA.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Columns read back from a snapshot together with the fingerprint of the CSV they came from.
+     */
+    public record Snapshot(HousingColumns columns, String fingerprint) {
+    }
+
+    private HousingSnapshotFile() {
+    }
+
+    /**
+     * Write {@code columns} to {@code target}, replacing it atomically via a temporary sibling and
+     * creating the parent directory if needed.
+     */
+    public static void write(Path target, HousingColumns columns, String fingerprint, long sourceLength)
+            throws IOException {
+        int rows = columns.size();
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        long dataOffset = align(HEADER_BYTES + SCHEMA_BYTES.length);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Each column gets its own mapping, so no single region approaches the 2 GB buffer limit
+            CRC32C crc = new CRC32C();
+            long offset = writeLongs(channel, dataOffset, columns.idColumn(), rows, crc);
+            offset = writeInts(channel, offset, columns.squareFootageColumn(), rows, crc);
+            offset = writeInts(channel, offset, columns.bedroomsColumn(), rows, crc);
+            offset = writeDoubles(channel, offset, columns.bathroomsColumn(), rows, crc);
+            offset = writeInts(channel, offset, columns.yearBuiltColumn(), rows, crc);
+            offset = writeInts(channel, offset, columns.lotSizeColumn(), rows, crc);
+            offset = writeDoubles(channel, offset, columns.distanceToCityCenterColumn(), rows, crc);
+            offset = writeDoubles(channel, offset, columns.schoolRatingColumn(), rows, crc);
+            writeInts(channel, offset, columns.priceColumn(), rows, crc);
+
+            ByteBuffer header = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(rows)
+                    .putInt(SCHEMA_BYTES.length)
+                    .putLong(sourceLength)
+                    .put(HexFormat.of().parseHex(fingerprint))
+                    .putLong(crc.getValue())
+                    .put(SCHEMA_BYTES)
+                    .clear();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Map and validate the snapshot at {@code path}, returning empty if it is missing, was taken
+     * from a different source version, or fails the schema or checksum check.
+     */
+    public static Optional<Snapshot> read(Path path, long sourceLength, String sourceFingerprint) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return Optional.empty();
+            }
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, HEADER_BYTES + 4096))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            int rows = in.getInt();
+            int schemaLength = in.getInt();
+            if (in.getLong() != sourceLength) {
+                return Optional.empty();
+            }
+            byte[] fingerprint = new byte[FINGERPRINT_BYTES];
+            in.get(fingerprint);
+            if (!HexFormat.of().formatHex(fingerprint).equals(sourceFingerprint)) {
+                return Optional.empty();
+            }
+            long expectedChecksum = in.getLong();
+            byte[] schema = new byte[schemaLength];
+            in.get(schema);
+            long dataOffset = align(HEADER_BYTES + schemaLength);
+            if (rows < 0 || !SCHEMA.equals(new String(schema, StandardCharsets.US_ASCII))
+                    || dataOffset + dataBytes(rows) != size) {
+                return Optional.empty();
+            }
+
+            long[] ids = new long[rows];
+            int[] squareFootage = new int[rows];
+            int[] bedrooms = new int[rows];
+            double[] bathrooms = new double[rows];
+            int[] yearBuilt = new int[rows];
+            int[] lotSize = new int[rows];
+            double[] distanceToCityCenter = new double[rows];
+            double[] schoolRating = new double[rows];
+            int[] price = new int[rows];
+
+            CRC32C crc = new CRC32C();
+            long offset = readLongs(channel, dataOffset, ids, crc);
+            offset = readInts(channel, offset, squareFootage, crc);
+            offset = readInts(channel, offset, bedrooms, crc);
+            offset = readDoubles(channel, offset, bathrooms, crc);
+            offset = readInts(channel, offset, yearBuilt, crc);
+            offset = readInts(channel, offset, lotSize, crc);
+            offset = readDoubles(channel, offset, distanceToCityCenter, crc);
+            offset = readDoubles(channel, offset, schoolRating, crc);
+            readInts(channel, offset, price, crc);
+            if (crc.getValue() != expectedChecksum) {
+                return Optional.empty();
+            }
+
+            HousingColumns columns = HousingColumns.wrap(rows, ids, squareFootage, bedrooms, bathrooms,
+                    yearBuilt, lotSize, distanceToCityCenter, schoolRating, price);
+            return Optional.of(new Snapshot(columns, sourceFingerprint));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (BufferUnderflowException | NegativeArraySizeException | IllegalArgumentException e) {
+            // Header fields pointing past the end of a truncated or foreign file
+            return Optional.empty();
+        }
+    }
+
+    private static long dataBytes(int rows) {
+        // Five 4-byte columns are padded to 8 bytes; the four 8-byte columns are always aligned
+        return 4 * 8L * rows + 5 * align(4L * rows);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    // Mapping past the end of the file extends it with zeros; 4-byte columns are mapped at their
+    // padded length so the padding is part of the file and of the checksum
+
+    private static long writeLongs(FileChannel channel, long offset, long[] values, int rows, CRC32C crc)
+            throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_WRITE, offset, 8L * rows);
+        region.asLongBuffer().put(values, 0, rows);
+        crc.update(region.duplicate());
+        return offset + 8L * rows;
+    }
+
+    private static long writeInts(FileChannel channel, long offset, int[] values, int rows, CRC32C crc)
+            throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_WRITE, offset, align(4L * rows));
+        region.asIntBuffer().put(values, 0, rows);
+        crc.update(region.duplicate());
+        return offset + align(4L * rows);
+    }
+
+    private static long writeDoubles(FileChannel channel, long offset, double[] values, int rows, CRC32C crc)
+            throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_WRITE, offset, 8L * rows);
+        region.asDoubleBuffer().put(values, 0, rows);
+        crc.update(region.duplicate());
+        return offset + 8L * rows;
+    }
+
+    private static long readLongs(FileChannel channel, long offset, long[] values, CRC32C crc) throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_ONLY, offset, 8L * values.length);
+        crc.update(region.duplicate());
+        region.asLongBuffer().get(values);
+        return offset + 8L * values.length;
+    }
+
+    private static long readInts(FileChannel channel, long offset, int[] values, CRC32C crc) throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_ONLY, offset, align(4L * values.length));
+        crc.update(region.duplicate());
+        region.asIntBuffer().get(values);
+        return offset + align(4L * values.length);
+    }
+
+    private static long readDoubles(FileChannel channel, long offset, double[] values, CRC32C crc) throws IOException {
+        MappedByteBuffer region = map(channel, FileChannel.MapMode.READ_ONLY, offset, 8L * values.length);
+        crc.update(region.duplicate());
+        region.asDoubleBuffer().get(values);
+        return offset + 8L * values.length;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long length)
+            throws IOException {
+        MappedByteBuffer region = channel.map(mode, offset, length);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        return region;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.propertymarketanalysis.data;
+
+/**
+ * Mergeable, fixed-size quantile sketch over positive values, in the style of an HDR histogram.
+ * Each power of two is split into 64 equal sub-buckets, and the bucket of a value is read
+ * straight from the exponent and top mantissa bits of its {@code double} representation. Any
+ * quantile is therefore reported within 1/128 (about 0.8%) of a true sample value, using a
+ * constant 20 KB regardless of how many values are added. Sketches built over separate
+ * partitions merge exactly by adding bucket counts.
+ *
+ * <p>Values are tracked between 2<sup>-4</sup> and 2<sup>36</sup>; anything outside that range
+ * (including zero and negatives) is counted in the first or last bucket, and the exact minimum
+ * and maximum are kept separately to bound the estimates.
+ */
+public final class QuantileSketch {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -4;
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKETS;
+    private static final double MIN_TRACKED = Math.scalb(1.0, MIN_EXPONENT);
+    private static final double MAX_TRACKED = Math.scalb(1.0, MAX_EXPONENT);
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        counts[bucket(value)]++;
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch().merge(this);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Estimate the {@code q}-quantile (0 to 1), or {@code NaN} when the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return Math.max(min, Math.min(max, midpoint(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Spread the sketched values over {@code bins} equal-width bins between {@code lower} and
+     * {@code upper}. Each sketch bucket is placed by its midpoint; values below or above the
+     * range are counted in the first or last bin.
+     */
+    public long[] histogram(double lower, double upper, int bins) {
+        long[] histogram = new long[bins];
+        double width = (upper - lower) / bins;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            int bin = width > 0 ? (int) ((midpoint(i) - lower) / width) : 0;
+            histogram[Math.max(0, Math.min(bins - 1, bin))] += counts[i];
+        }
+        return histogram;
+    }
+
+    private static int bucket(double value) {
+        if (!(value >= MIN_TRACKED)) {
+            return 0;
+        }
+        if (value >= MAX_TRACKED) {
+            return BUCKETS - 1;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = (int) (bits >>> 52) - 1023;
+        int subBucket = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - MIN_EXPONENT) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    private static double midpoint(int bucket) {
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + MIN_EXPONENT;
+        int subBucket = bucket & (SUB_BUCKETS - 1);
+        return Math.scalb(1.0 + (subBucket + 0.5) / SUB_BUCKETS, exponent);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparableProperty {
+    private Housing property;
+    private Double distance; // Euclidean, over features scaled to unit standard deviation
+}
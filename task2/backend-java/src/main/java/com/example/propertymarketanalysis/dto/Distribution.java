@@ -0,0 +1,18 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Distribution {
+    private Double p10;
+    private Double median;
+    private Double p90;
+    private Double p99;
+    private List<HistogramBin> histogram; // equal-width bins from p1 to p99; outliers fall in the edge bins
+}
@@ -0,0 +1,18 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldStats {
+    private Long count;
+    private Double sum;
+    private Double min;
+    private Double max;
+    private Double mean;
+    private Double variance; // population variance
+    private Double standardDeviation;
+}
@@ -0,0 +1,14 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBin {
+    private Double lower;
+    private Double upper;
+    private Long count;
+}
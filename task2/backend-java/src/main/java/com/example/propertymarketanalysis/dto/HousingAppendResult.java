@@ -0,0 +1,15 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HousingAppendResult {
+    private Integer accepted;
+    private Long version;
+    private Integer totalRecords;
+    private String fingerprint;
+}
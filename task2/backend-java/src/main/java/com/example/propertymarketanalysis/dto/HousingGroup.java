@@ -0,0 +1,15 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HousingGroup {
+    private String key; // e.g. "3" bedrooms, "1990s", "2-4"
+    private Double lowerBound; // inclusive
+    private Double upperBound; // exclusive
+    private HousingStats stats;
+}
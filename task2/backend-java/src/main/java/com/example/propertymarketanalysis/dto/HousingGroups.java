@@ -0,0 +1,16 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HousingGroups {
+    private String dimension;
+    private Long version; // dataset version the groups were computed from
+    private List<HousingGroup> groups; // non-empty groups, in key order
+}
@@ -0,0 +1,26 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter over the housing dataset. Range bounds are inclusive and any field left null is ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HousingQuery {
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minSquareFootage;
+    private Double maxSquareFootage;
+    private Double minYearBuilt;
+    private Double maxYearBuilt;
+    private Double minDistanceToCityCenter;
+    private Double maxDistanceToCityCenter;
+    private Double minSchoolRating;
+    private Double maxSchoolRating;
+    private Integer bedrooms;
+    private Double bathrooms;
+}
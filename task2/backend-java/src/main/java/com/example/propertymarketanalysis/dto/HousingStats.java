@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,4 +21,7 @@ public class HousingStats {
     private Double averageLotSize;
     private Double averageDistanceToCityCenter;
     private Double averageSchoolRating;
+    private Map<String, FieldStats> fields; // keyed by Housing property name
+    private Double medianPrice;
+    private Map<String, Distribution> distributions; // price, squareFootage, lotSize, pricePerSquareFoot
 }
\ No newline at end of file
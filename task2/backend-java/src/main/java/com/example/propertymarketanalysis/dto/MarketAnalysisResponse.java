@@ -16,6 +16,6 @@ public class MarketAnalysisResponse {
     private List<MarketData> marketData;
     private MarketTrend currentTrend;
     private Double averageGrowthRate;
-    private String marketCondition; // "BUYER", "SELLER", "BALANCED"
+    private String marketCondition; // "BUYER", "SELLER", "BALANCED", or "UNAVAILABLE" if a comparison timed out
     private String analysisDate;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketQuery {
+    private String type; // "ANALYSIS", "HISTORICAL", "TREND", "FORECAST"
+    private String location;
+    private String propertyType; // defaults to "ALL"
+    private String timeframe; // defaults to "1Y", or "6M" for a forecast
+}
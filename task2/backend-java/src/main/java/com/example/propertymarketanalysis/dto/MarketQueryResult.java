@@ -0,0 +1,21 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketQueryResult {
+    private String type;
+    private String location;
+    private String propertyType;
+    private String timeframe;
+    private MarketAnalysisResponse analysis; // ANALYSIS only
+    private List<MarketData> marketData; // HISTORICAL only
+    private MarketTrend trend; // TREND or FORECAST
+    private String error; // set instead of a result if the market did not finish before the deadline
+}
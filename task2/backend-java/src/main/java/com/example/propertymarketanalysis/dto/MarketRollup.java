@@ -0,0 +1,22 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketRollup {
+    private String period; // "2025-Q3" or "2025"
+    private LocalDate startDate;
+    private Integer months; // months of data in the bucket; edge buckets may be partial
+    private Double averagePrice;
+    private Double averagePricePerSquareFoot;
+    private Integer totalSales;
+    private Double averageDaysOnMarket;
+    private Double trailingYearAveragePrice; // average monthly price over the 12 months ending with this bucket
+    private Double growthRate; // % change in average price from the previous bucket, null for the first
+}
@@ -13,4 +13,7 @@ public class MarketTrend {
     private String trendDirection; // "UP", "DOWN", "STABLE"
     private String description;
     private Double volatility;
+    private Double forecastPrice; // forecasts only: expected average price at the end of the period
+    private Double forecastLow;   // forecasts only: 95% prediction interval around forecastPrice
+    private Double forecastHigh;
 }
\ No newline at end of file
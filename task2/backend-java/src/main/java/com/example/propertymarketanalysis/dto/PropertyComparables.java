@@ -0,0 +1,19 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The listings most similar to a subject property, nearest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyComparables {
+    private PropertyFeatures subject;
+    private List<ComparableProperty> comparables;
+    private Double medianPrice; // of the comparables, null if there are none
+}
@@ -0,0 +1,21 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Inputs of the property valuation model, matching the task1 {@code /predict} schema.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyFeatures {
+    private Double squareFootage;
+    private Integer bedrooms;
+    private Double bathrooms;
+    private Integer yearBuilt;
+    private Integer lotSize;
+    private Double distanceToCityCenter;
+    private Double schoolRating;
+}
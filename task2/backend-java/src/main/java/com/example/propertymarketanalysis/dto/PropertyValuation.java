@@ -0,0 +1,13 @@
+package com.example.propertymarketanalysis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyValuation {
+    private PropertyFeatures features;
+    private Double estimatedPrice;
+}
@@ -0,0 +1,280 @@
+package com.example.propertymarketanalysis.market;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Exponential smoothing model of a monthly price series: additive Holt-Winters with a damped
+ * trend and, when it earns its extra parameters, an additive 12-month season (ETS(A,Ad,A), or
+ * ETS(A,Ad,N) without the season). In error-correction form, with one-step error
+ * {@code e = y - (level + phi * trend + season[m])}:
+ * <pre>
+ *   level     = level + phi * trend + alpha * e
+ *   trend     = phi * trend + alpha * beta * e
+ *   season[m] = season[m] + gamma * e
+ * </pre>
+ * Smoothing parameters are chosen by grid search on the one-step squared error, and the seasonal
+ * variant is kept only if it has the lower AIC. An instance is immutable: {@link #update} runs the
+ * recursions over new months with the fitted parameters and returns a new model, which costs
+ * O(new months) instead of a fresh search.
+ *
+ * <p>{@link #provisional} skips the search and runs the recursions once with fixed parameters,
+ * for answering straight away while {@link #fit} runs elsewhere.
+ *
+ * <p>Seasonal terms are indexed by calendar month, so a model can be extrapolated from any month
+ * after the last one it saw.
+ */
+public final class HoltWintersModel {
+
+    public static final int SEASON_MONTHS = 12;
+
+    /** Two-sided 95% normal quantile. */
+    private static final double Z_95 = 1.959963984540054;
+
+    private static final double[] ALPHAS = {0.05, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+    private static final double[] BETAS = {0.01, 0.05, 0.1, 0.2, 0.3};
+    private static final double[] PHIS = {0.8, 0.9, 0.95, 0.98};
+    private static final double[] GAMMAS = {0.05, 0.1, 0.2, 0.3};
+    /** Parameters of a provisional model: middle of the search grid, lightly damped. */
+    private static final double PROVISIONAL_ALPHA = 0.3;
+    private static final double PROVISIONAL_BETA = 0.1;
+    private static final double PROVISIONAL_PHI = 0.95;
+    private static final double PROVISIONAL_GAMMA = 0.1;
+
+    /**
+     * Point forecast with a 95% prediction interval.
+     */
+    public record Forecast(double price, double lower, double upper) {
+    }
+
+    private final double alpha;
+    private final double beta;
+    private final double phi;
+    private final double gamma;
+    private final boolean seasonal;
+    private final double level;
+    private final double trend;
+    // season[month - 1], zero when not seasonal
+    private final double[] season;
+    private final double sse;
+    private final int observations;
+    private final YearMonth lastMonth;
+    private final int updatesSinceFit;
+    private final boolean provisional;
+
+    private HoltWintersModel(double alpha, double beta, double phi, double gamma, boolean seasonal,
+                             double level, double trend, double[] season, double sse, int observations,
+                             YearMonth lastMonth, int updatesSinceFit, boolean provisional) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.phi = phi;
+        this.gamma = gamma;
+        this.seasonal = seasonal;
+        this.level = level;
+        this.trend = trend;
+        this.season = season;
+        this.sse = sse;
+        this.observations = observations;
+        this.lastMonth = lastMonth;
+        this.updatesSinceFit = updatesSinceFit;
+        this.provisional = provisional;
+    }
+
+    /**
+     * Fit a model to {@code prices}, the monthly values ending at {@code lastMonth}.
+     *
+     * @throws IllegalArgumentException if there are fewer than three points
+     */
+    public static HoltWintersModel fit(double[] prices, YearMonth lastMonth) {
+        if (prices.length < 3) {
+            throw new IllegalArgumentException("At least 3 monthly points are needed, got " + prices.length);
+        }
+        YearMonth firstMonth = lastMonth.minusMonths(prices.length - 1L);
+        HoltWintersModel best = null;
+        double bestAic = Double.POSITIVE_INFINITY;
+        // The season needs two full years to initialise and still have errors left to judge it by
+        boolean trySeasonal = prices.length >= 2 * SEASON_MONTHS;
+        for (int variant = 0; variant < (trySeasonal ? 2 : 1); variant++) {
+            boolean withSeason = variant == 1;
+            HoltWintersModel initial = initial(prices, firstMonth, withSeason);
+            for (double alpha : ALPHAS) {
+                for (double beta : BETAS) {
+                    for (double phi : PHIS) {
+                        for (double gamma : withSeason ? GAMMAS : new double[] {0.0}) {
+                            if (gamma > 1 - alpha) {
+                                continue;
+                            }
+                            HoltWintersModel candidate = initial.withParameters(alpha, beta, phi, gamma, false)
+                                    .run(prices, firstMonth, 0);
+                            double aic = candidate.aic();
+                            if (aic < bestAic) {
+                                bestAic = aic;
+                                best = candidate;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Model {@code prices} with fixed smoothing parameters in a single pass, seasonal when there are
+     * two full years. Its forecasts are rougher than a {@link #fit fitted} model's.
+     *
+     * @throws IllegalArgumentException if there are fewer than three points
+     */
+    public static HoltWintersModel provisional(double[] prices, YearMonth lastMonth) {
+        if (prices.length < 3) {
+            throw new IllegalArgumentException("At least 3 monthly points are needed, got " + prices.length);
+        }
+        YearMonth firstMonth = lastMonth.minusMonths(prices.length - 1L);
+        boolean seasonal = prices.length >= 2 * SEASON_MONTHS;
+        return initial(prices, firstMonth, seasonal)
+                .withParameters(PROVISIONAL_ALPHA, PROVISIONAL_BETA, PROVISIONAL_PHI,
+                        seasonal ? PROVISIONAL_GAMMA : 0.0, true)
+                .run(prices, firstMonth, 0);
+    }
+
+    /**
+     * Continue from {@link #lastMonth()} over the months that follow it, keeping the parameters.
+     */
+    public HoltWintersModel update(double[] newPrices) {
+        return run(newPrices, lastMonth.plusMonths(1), updatesSinceFit + newPrices.length);
+    }
+
+    /**
+     * Forecast for {@code month}, which must be after {@link #lastMonth()}.
+     */
+    public Forecast forecast(YearMonth month) {
+        int horizon = (int) lastMonth.until(month, ChronoUnit.MONTHS);
+        if (horizon < 1) {
+            throw new IllegalArgumentException(month + " is not after " + lastMonth);
+        }
+        double price = level + dampedSum(horizon) * trend + season[month.getMonthValue() - 1];
+        // Var(h) = sigma^2 * (1 + sum_{j<h} c_j^2), c_j = alpha * (1 + beta * phi_j) + gamma * [j % 12 == 0]
+        double variance = 1;
+        for (int j = 1; j < horizon; j++) {
+            double c = alpha * (1 + beta * dampedSum(j)) + (j % SEASON_MONTHS == 0 ? gamma : 0);
+            variance += c * c;
+        }
+        double margin = Z_95 * sigma() * Math.sqrt(variance);
+        return new Forecast(price, price - margin, price + margin);
+    }
+
+    /**
+     * Smoothed value for {@link #lastMonth()}: the level plus that month's seasonal term.
+     */
+    public double currentPrice() {
+        return level + season[lastMonth.getMonthValue() - 1];
+    }
+
+    /**
+     * Standard deviation of the one-step errors.
+     */
+    public double sigma() {
+        return Math.sqrt(sse / Math.max(1, observations - parameterCount()));
+    }
+
+    public YearMonth lastMonth() {
+        return lastMonth;
+    }
+
+    public boolean seasonal() {
+        return seasonal;
+    }
+
+    /**
+     * Whether the parameters are the fixed ones of {@link #provisional} rather than searched.
+     */
+    public boolean isProvisional() {
+        return provisional;
+    }
+
+    /**
+     * Months folded in by {@link #update} since the parameters were last searched.
+     */
+    public int updatesSinceFit() {
+        return updatesSinceFit;
+    }
+
+    private static HoltWintersModel initial(double[] prices, YearMonth firstMonth, boolean seasonal) {
+        double[] season = new double[SEASON_MONTHS];
+        double level;
+        double trend;
+        if (seasonal) {
+            double firstYear = mean(prices, 0, SEASON_MONTHS);
+            double secondYear = mean(prices, SEASON_MONTHS, 2 * SEASON_MONTHS);
+            trend = (secondYear - firstYear) / SEASON_MONTHS;
+            // The yearly mean sits mid-year; take the season from first-year deviations off the trend line
+            double middle = (SEASON_MONTHS - 1) / 2.0;
+            level = firstYear - middle * trend;
+            for (int i = 0; i < SEASON_MONTHS; i++) {
+                season[firstMonth.plusMonths(i).getMonthValue() - 1] = prices[i] - (level + i * trend);
+            }
+        } else {
+            // Average slope rather than the first difference, which is mostly noise
+            level = prices[0];
+            trend = prices.length >= 2 * SEASON_MONTHS
+                    ? (mean(prices, SEASON_MONTHS, 2 * SEASON_MONTHS) - mean(prices, 0, SEASON_MONTHS)) / SEASON_MONTHS
+                    : (prices[prices.length - 1] - prices[0]) / (prices.length - 1);
+        }
+        // State just before the first month, so the first point is predicted like any other
+        return new HoltWintersModel(0, 0, 1, 0, seasonal, level - trend, trend, season, 0, 0,
+                firstMonth.minusMonths(1), 0, false);
+    }
+
+    private HoltWintersModel withParameters(double alpha, double beta, double phi, double gamma,
+                                            boolean provisional) {
+        return new HoltWintersModel(alpha, beta, phi, gamma, seasonal, level, trend, season, sse, observations,
+                lastMonth, updatesSinceFit, provisional);
+    }
+
+    private HoltWintersModel run(double[] prices, YearMonth firstMonth, int updates) {
+        double l = level;
+        double b = trend;
+        double[] s = season.clone();
+        double errors = sse;
+        for (int i = 0; i < prices.length; i++) {
+            int m = firstMonth.plusMonths(i).getMonthValue() - 1;
+            double e = prices[i] - (l + phi * b + s[m]);
+            l = l + phi * b + alpha * e;
+            b = phi * b + alpha * beta * e;
+            if (seasonal) {
+                s[m] += gamma * e;
+            }
+            errors += e * e;
+        }
+        return new HoltWintersModel(alpha, beta, phi, gamma, seasonal, l, b, s, errors, observations + prices.length,
+                firstMonth.plusMonths(prices.length - 1L), updates, provisional);
+    }
+
+    private double aic() {
+        return observations * Math.log(Math.max(sse, Double.MIN_NORMAL) / observations) + 2.0 * parameterCount();
+    }
+
+    /** Smoothing parameters plus initial states. */
+    private int parameterCount() {
+        return seasonal ? 4 + 2 + SEASON_MONTHS : 3 + 2;
+    }
+
+    private double dampedSum(int horizon) {
+        // phi + phi^2 + ... + phi^horizon
+        double sum = 0;
+        double power = 1;
+        for (int i = 0; i < horizon; i++) {
+            power *= phi;
+            sum += power;
+        }
+        return sum;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
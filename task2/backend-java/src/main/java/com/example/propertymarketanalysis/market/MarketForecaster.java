@@ -0,0 +1,216 @@
+package com.example.propertymarketanalysis.market;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a fitted {@link HoltWintersModel} of average price per (location, propertyType), so a
+ * forecast is a map lookup plus extrapolation. The first time a market is forecast it gets a
+ * {@link HoltWintersModel#provisional provisional} model, a single pass over its history, and the
+ * parameter search is queued on the background thread; when it finishes the fitted model replaces
+ * the provisional one and a {@link MarketModelFittedEvent} is published. Models are kept for at
+ * most {@value #MAX_MODELS} markets, least recently used first out. After that the background
+ * thread keeps each model current every {@code refitInterval}: months
+ * added to the {@link MarketSeriesStore} since the last pass are folded in incrementally, and
+ * the smoothing parameters are searched again once a year of updates has accumulated. Between
+ * passes a model is extrapolated from its last month, so a forecast never waits for a refit.
+ *
+ * <p>Each refit is timed as {@code market.forecast.refit}, tagged {@code mode=full|incremental}.
+ * The timer is per mode rather than per market to keep the metric's cardinality bounded; its
+ * histogram gives the distribution of refit time across series.
+ */
+@Slf4j
+@Component
+public class MarketForecaster {
+
+    private static final int MAX_MODELS = 10_000;
+
+    private final MarketSeriesStore marketSeriesStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Duration refitInterval;
+    private final Timer fullRefits;
+    private final Timer incrementalRefits;
+    private final Cache<MarketKey, HoltWintersModel> models = Caffeine.newBuilder().maximumSize(MAX_MODELS).build();
+    private ScheduledExecutorService scheduler;
+
+    public MarketForecaster(MarketSeriesStore marketSeriesStore) {
+        this(marketSeriesStore, Duration.ofHours(1), new SimpleMeterRegistry(), null, Clock.systemDefaultZone());
+    }
+
+    @Autowired
+    public MarketForecaster(MarketSeriesStore marketSeriesStore,
+                            @Value("${market.forecast.refit-interval:1h}") Duration refitInterval,
+                            MeterRegistry meterRegistry,
+                            ApplicationEventPublisher eventPublisher) {
+        this(marketSeriesStore, refitInterval, meterRegistry, eventPublisher, Clock.systemDefaultZone());
+    }
+
+    MarketForecaster(MarketSeriesStore marketSeriesStore, Duration refitInterval, MeterRegistry meterRegistry,
+                     ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.marketSeriesStore = marketSeriesStore;
+        this.eventPublisher = eventPublisher;
+        this.refitInterval = refitInterval;
+        this.clock = clock;
+        this.fullRefits = refitTimer(meterRegistry, "full");
+        this.incrementalRefits = refitTimer(meterRegistry, "incremental");
+        Gauge.builder("market.forecast.models", models, Cache::estimatedSize)
+                .description("Markets with a forecast model, fitted or provisional")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("market-forecaster").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::refitAll, refitInterval.toMillis(), refitInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Forecast for {@code months} after the current month.
+     */
+    public HoltWintersModel.Forecast forecast(String location, String propertyType, int months) {
+        return forecast(model(location, propertyType), months);
+    }
+
+    /**
+     * Forecast {@code months} after the current month from {@code model}, however stale it is.
+     */
+    public HoltWintersModel.Forecast forecast(HoltWintersModel model, int months) {
+        return model.forecast(YearMonth.now(clock).plusMonths(months));
+    }
+
+    /**
+     * The market's current model. The first time a market is asked for this is a provisional model,
+     * and the fit is left to the background thread; a request never runs the parameter search.
+     */
+    public HoltWintersModel model(String location, String propertyType) {
+        MarketKey key = new MarketKey(location, propertyType);
+        HoltWintersModel model = models.getIfPresent(key);
+        if (model != null) {
+            return model;
+        }
+        MarketSeries series = marketSeriesStore.series(location, propertyType);
+        HoltWintersModel provisional = HoltWintersModel.provisional(prices(series, 0), series.lastMonth());
+        HoltWintersModel existing = models.asMap().putIfAbsent(key, provisional);
+        if (existing != null) {
+            return existing;
+        }
+        // Before start() there is no background thread; refitAll() fits provisional models too
+        if (scheduler != null) {
+            try {
+                scheduler.execute(() -> fitProvisional(key));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+            }
+        }
+        return provisional;
+    }
+
+    /**
+     * Fit every provisional model and bring every model up to the latest month of its series.
+     * Runs on the background thread.
+     */
+    void refitAll() {
+        for (MarketKey key : models.asMap().keySet()) {
+            try {
+                refit(key);
+            } catch (RuntimeException e) {
+                log.warn("Could not refit forecast model for {} {}", key.location(), key.propertyType(), e);
+            }
+        }
+    }
+
+    private void fitProvisional(MarketKey key) {
+        try {
+            HoltWintersModel model = models.getIfPresent(key);
+            if (model != null && model.isProvisional()) {
+                refit(key);
+            }
+        } catch (RuntimeException e) {
+            // The provisional model keeps answering; the next refit pass tries again
+            log.warn("Could not fit forecast model for {} {}", key.location(), key.propertyType(), e);
+        }
+    }
+
+    private void refit(MarketKey key) {
+        MarketSeries series = marketSeriesStore.series(key.location(), key.propertyType());
+        HoltWintersModel model = models.getIfPresent(key);
+        if (model == null) {
+            return;
+        }
+        if (model.isProvisional()) {
+            HoltWintersModel fitted = fit(series);
+            // Only replace what was there; an evicted market stays evicted
+            if (models.asMap().replace(key, model, fitted) && eventPublisher != null) {
+                eventPublisher.publishEvent(new MarketModelFittedEvent(key.location(), key.propertyType()));
+            }
+            return;
+        }
+        if (!series.lastMonth().isAfter(model.lastMonth())) {
+            return;
+        }
+        int newMonths = (int) model.lastMonth().until(series.lastMonth(), ChronoUnit.MONTHS);
+        if (newMonths >= series.size() || model.updatesSinceFit() + newMonths >= HoltWintersModel.SEASON_MONTHS) {
+            models.asMap().replace(key, model, fit(series));
+            return;
+        }
+        long start = System.nanoTime();
+        HoltWintersModel updated = model.update(prices(series, series.size() - newMonths));
+        incrementalRefits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        models.asMap().replace(key, model, updated);
+    }
+
+    private HoltWintersModel fit(MarketSeries series) {
+        long start = System.nanoTime();
+        HoltWintersModel model = HoltWintersModel.fit(prices(series, 0), series.lastMonth());
+        fullRefits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return model;
+    }
+
+    private static double[] prices(MarketSeries series, int from) {
+        double[] prices = new double[series.size() - from];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = series.averagePrice(from + i, from + i + 1);
+        }
+        return prices;
+    }
+
+    private static Timer refitTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("market.forecast.refit")
+                .description("Time to fit or update one market's forecast model")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    private record MarketKey(String location, String propertyType) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.propertymarketanalysis.market;
+
+/**
+ * Published when a market's provisional forecast model is replaced by a fitted one, so forecasts
+ * computed from the provisional model can be dropped.
+ */
+public record MarketModelFittedEvent(String location, String propertyType) {
+}
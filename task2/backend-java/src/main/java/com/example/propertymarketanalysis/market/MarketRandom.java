@@ -0,0 +1,31 @@
+package com.example.propertymarketanalysis.market;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic random sources for synthetic market data.
+ */
+public final class MarketRandom {
+
+    private MarketRandom() {
+    }
+
+    /**
+     * A generator seeded from the query itself, so the same query always yields the same synthetic
+     * numbers and no generator state is shared between request threads. Keys are compared
+     * case-insensitively.
+     */
+    public static SplittableRandom forKey(String... keyParts) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (String part : keyParts) {
+            String normalized = part == null ? "" : part.trim().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < normalized.length(); i++) {
+                hash = (hash ^ normalized.charAt(i)) * 0x100000001B3L;
+            }
+            // Separator, so ("ab", "c") and ("a", "bc") get different seeds
+            hash = (hash ^ 0x1F) * 0x100000001B3L;
+        }
+        return new SplittableRandom(hash);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.propertymarketanalysis.market;
+
+import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketRollup;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monthly market history for one location and property type, oldest month first. Quarterly and
+ * yearly rollups and running price sums are computed once when the series is built, so every
+ * timeframe is answered from a slice of the same arrays rather than by regenerating data.
+ */
+public final class MarketSeries {
+
+    public enum Granularity { QUARTER, YEAR }
+
+    private static final int TRAILING_YEAR_MONTHS = 12;
+
+    private final YearMonth firstMonth;
+    private final List<MarketData> points;
+    private final double[] averagePrice;
+    // averagePriceSums[i] is the sum of averagePrice[0, i), so any window mean is one subtraction
+    private final double[] averagePriceSums;
+    private final List<MarketRollup> quarterly;
+    private final List<MarketRollup> yearly;
+
+    public MarketSeries(YearMonth firstMonth, List<MarketData> points) {
+        this.firstMonth = firstMonth;
+        this.points = List.copyOf(points);
+        int size = points.size();
+        averagePrice = new double[size];
+        averagePriceSums = new double[size + 1];
+        for (int i = 0; i < size; i++) {
+            averagePrice[i] = points.get(i).getAveragePrice();
+            averagePriceSums[i + 1] = averagePriceSums[i] + averagePrice[i];
+        }
+        quarterly = rollup(Granularity.QUARTER);
+        yearly = rollup(Granularity.YEAR);
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public YearMonth firstMonth() {
+        return firstMonth;
+    }
+
+    public YearMonth lastMonth() {
+        return firstMonth.plusMonths(points.size() - 1L);
+    }
+
+    /**
+     * The latest month plus the {@code months} before it, as a read-only view of the series,
+     * clamped to the available history.
+     */
+    public List<MarketData> window(int months) {
+        return points.subList(windowStart(months), points.size());
+    }
+
+    /**
+     * Percentage change in average price from the first to the last point of {@link #window}.
+     */
+    public double growthRate(int months) {
+        int first = windowStart(months);
+        int last = points.size() - 1;
+        if (first >= last) {
+            return 0.0;
+        }
+        return (averagePrice[last] - averagePrice[first]) / averagePrice[first] * 100;
+    }
+
+    /**
+     * Mean of the monthly average prices in {@code [from, to)}.
+     */
+    public double averagePrice(int from, int to) {
+        return (averagePriceSums[to] - averagePriceSums[from]) / (to - from);
+    }
+
+    public List<MarketRollup> rollups(Granularity granularity) {
+        return granularity == Granularity.QUARTER ? quarterly : yearly;
+    }
+
+    private int windowStart(int months) {
+        return Math.max(0, points.size() - 1 - months);
+    }
+
+    /**
+     * Group months into calendar quarters or years. The first and last buckets may be partial.
+     */
+    private List<MarketRollup> rollup(Granularity granularity) {
+        int bucketMonths = granularity == Granularity.QUARTER ? 3 : 12;
+        List<MarketRollup> rollups = new ArrayList<>();
+        Double previousPrice = null;
+        int start = 0;
+        while (start < points.size()) {
+            YearMonth month = firstMonth.plusMonths(start);
+            int offset = (month.getMonthValue() - 1) % bucketMonths;
+            int end = Math.min(points.size(), start + bucketMonths - offset);
+
+            double pricePerSquareFoot = 0;
+            double daysOnMarket = 0;
+            int totalSales = 0;
+            for (int i = start; i < end; i++) {
+                MarketData point = points.get(i);
+                pricePerSquareFoot += point.getPricePerSquareFoot();
+                daysOnMarket += point.getDaysOnMarket();
+                totalSales += point.getTotalSales();
+            }
+            int count = end - start;
+            double price = averagePrice(start, end);
+
+            rollups.add(new MarketRollup(
+                    granularity == Granularity.QUARTER
+                            ? month.getYear() + "-Q" + ((month.getMonthValue() - 1) / 3 + 1)
+                            : String.valueOf(month.getYear()),
+                    month.atDay(1),
+                    count,
+                    price,
+                    pricePerSquareFoot / count,
+                    totalSales,
+                    daysOnMarket / count,
+                    averagePrice(Math.max(0, end - TRAILING_YEAR_MONTHS), end),
+                    previousPrice == null ? null : (price - previousPrice) / previousPrice * 100));
+            previousPrice = price;
+            start = end;
+        }
+        return List.copyOf(rollups);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.propertymarketanalysis.market;
+
+import com.example.propertymarketanalysis.dto.MarketData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps one {@link MarketSeries} per (location, propertyType), covering {@link #HISTORY_MONTHS}
+ * months up to the current one. A series is built on first use and rebuilt when the calendar
+ * month rolls over; every timeframe for that market is a window over it. Each month's figures
+ * are seeded by the market and that calendar month, so a rollover appends the new month and
+ * drops the oldest without changing the months in between.
+ */
+@Component
+public class MarketSeriesStore {
+
+    /** Enough history for the longest timeframe (5Y) plus the current month. */
+    public static final int HISTORY_MONTHS = 60;
+
+    private static final int MAX_SERIES = 10_000;
+
+    private final Cache<SeriesKey, MarketSeries> series = Caffeine.newBuilder()
+            .maximumSize(MAX_SERIES)
+            .build();
+    private final Clock clock;
+
+    public MarketSeriesStore() {
+        this(Clock.systemDefaultZone());
+    }
+
+    MarketSeriesStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    public MarketSeries series(String location, String propertyType) {
+        YearMonth currentMonth = YearMonth.now(clock);
+        SeriesKey key = new SeriesKey(location, propertyType);
+        MarketSeries current = series.get(key, k -> generate(location, propertyType, currentMonth));
+        if (!current.lastMonth().equals(currentMonth)) {
+            // Racing callers may both rebuild after a month boundary; the results are identical
+            current = generate(location, propertyType, currentMonth);
+            series.put(key, current);
+        }
+        return current;
+    }
+
+    private static MarketSeries generate(String location, String propertyType, YearMonth lastMonth) {
+        YearMonth firstMonth = lastMonth.minusMonths(HISTORY_MONTHS);
+        List<MarketData> points = new ArrayList<>(HISTORY_MONTHS + 1);
+
+        SplittableRandom market = MarketRandom.forKey("history", location, propertyType);
+        double basePrice = 500000 + market.nextDouble() * 500000; // $500K to $1M base
+
+        for (int i = 0; i <= HISTORY_MONTHS; i++) {
+            YearMonth month = firstMonth.plusMonths(i);
+            SplittableRandom random = MarketRandom.forKey("history", location, propertyType, month.toString());
+            double priceVariation = 1 + (random.nextDouble() * 0.4 - 0.2); // ±20% variation
+
+            MarketData marketData = new MarketData();
+            marketData.setDate(month.atDay(1));
+            marketData.setAveragePrice(basePrice * priceVariation);
+            marketData.setMedianPrice(basePrice * priceVariation * 0.95);
+            marketData.setTotalSales(random.nextInt(500) + 100);
+            marketData.setPricePerSquareFoot(marketData.getAveragePrice() / (2000 + random.nextInt(1000)));
+            marketData.setDaysOnMarket(random.nextInt(60) + 20);
+            marketData.setLocation(location);
+            marketData.setPropertyType(propertyType);
+
+            points.add(marketData);
+        }
+
+        return new MarketSeries(firstMonth, points);
+    }
+
+    private record SeriesKey(String location, String propertyType) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.propertymarketanalysis.requestlog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Sampled, asynchronous request log. Request threads only decide whether to keep an entry and
+ * offer it to a bounded ring buffer; a single background thread formats and writes entries to
+ * the {@code request-log} logger. A fraction {@code sampleRate} of requests is kept, plus every
+ * request slower than {@code slowThreshold}. When the buffer is full the entry is dropped and
+ * counted in {@code request.log.dropped}, so logging never holds up a request.
+ */
+@Slf4j(topic = "request-log")
+@Component
+public class RequestLog {
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final BlockingQueue<RequestLogEntry> buffer;
+    private final Consumer<RequestLogEntry> sink;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    @Autowired
+    public RequestLog(@Value("${request-log.enabled:true}") boolean enabled,
+                      @Value("${request-log.sample-rate:0.01}") double sampleRate,
+                      @Value("${request-log.slow-threshold:500ms}") Duration slowThreshold,
+                      @Value("${request-log.buffer-size:8192}") int bufferSize,
+                      MeterRegistry meterRegistry) {
+        this(enabled, sampleRate, slowThreshold, bufferSize, meterRegistry, entry -> log.info(entry.format()));
+    }
+
+    RequestLog(boolean enabled, double sampleRate, Duration slowThreshold, int bufferSize,
+               MeterRegistry meterRegistry, Consumer<RequestLogEntry> sink) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("request-log.sample-rate must be between 0 and 1");
+        }
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sink = sink;
+        FunctionCounter.builder("request.log.dropped", dropped, AtomicLong::get)
+                .description("Request log entries dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("request.log.buffered", buffer, BlockingQueue::size)
+                .description("Request log entries waiting to be written")
+                .register(meterRegistry);
+        this.writer = enabled ? Thread.ofPlatform().name("request-log").daemon().start(this::drain) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Keep the request if it is slow or falls in the sample, without blocking.
+     *
+     * @return whether the entry was buffered
+     */
+    public boolean record(String method, String endpoint, String params, int status,
+                          long latencyNanos, long responseBytes) {
+        if (!enabled || (latencyNanos < slowThresholdNanos && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return false;
+        }
+        RequestLogEntry entry = new RequestLogEntry(Instant.now(), method, endpoint, params, status,
+                latencyNanos, responseBytes);
+        if (!buffer.offer(entry)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(1000);
+        }
+        // Whatever was still buffered at shutdown
+        List<RequestLogEntry> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        remaining.forEach(this::write);
+    }
+
+    private void drain() {
+        List<RequestLogEntry> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, DRAIN_BATCH - 1);
+                batch.forEach(this::write);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    private void write(RequestLogEntry entry) {
+        try {
+            sink.accept(entry);
+        } catch (RuntimeException e) {
+            log.warn("Could not write request log entry", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.propertymarketanalysis.requestlog;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One completed request, as written to the request log.
+ *
+ * @param endpoint      matched route pattern, or the request URI when no handler matched
+ * @param params        query string, truncated; empty when there is none
+ * @param latencyNanos  time from the filter seeing the request to the response completing
+ * @param responseBytes bytes written to the response body, after any compression
+ */
+public record RequestLogEntry(Instant timestamp, String method, String endpoint, String params, int status,
+                              long latencyNanos, long responseBytes) {
+
+    /**
+     * logfmt, so the line is both readable and trivially parsed by log shippers.
+     */
+    String format() {
+        return "method=" + method
+                + " endpoint=" + endpoint
+                + " params=\"" + params.replace("\"", "\\\"") + "\""
+                + " status=" + status
+                + " latency_ms=" + String.format(Locale.ROOT, "%.3f", latencyNanos / 1e6)
+                + " bytes=" + responseBytes
+                + " at=" + timestamp;
+    }
+}
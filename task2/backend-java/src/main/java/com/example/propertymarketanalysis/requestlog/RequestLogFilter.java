@@ -0,0 +1,83 @@
+package com.example.propertymarketanalysis.requestlog;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every request and hands the result to the {@link RequestLog}. Runs ahead of the other
+ * filters so the latency covers them too. Streamed responses are measured when the async
+ * request completes rather than when the controller returns.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final int MAX_PARAMS_LENGTH = 256;
+
+    private final RequestLog requestLog;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !requestLog.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        boolean failed = true;
+        try {
+            chain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, counting, counting.getStatus(), start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, counting, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : counting.getStatus(), start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponseWrapper response, int status, long start) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String params = request.getQueryString();
+        if (params == null) {
+            params = "";
+        } else if (params.length() > MAX_PARAMS_LENGTH) {
+            params = params.substring(0, MAX_PARAMS_LENGTH) + "...";
+        }
+        requestLog.record(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                params, status, System.nanoTime() - start, response.bytesWritten());
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.propertymarketanalysis.service;
 
+import com.example.propertymarketanalysis.data.HousingDataset;
+import com.example.propertymarketanalysis.data.HousingDimension;
 import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.dto.HousingGroups;
+import com.example.propertymarketanalysis.dto.HousingQuery;
 import com.example.propertymarketanalysis.dto.HousingStats;
 import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
 import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
 import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketQuery;
+import com.example.propertymarketanalysis.dto.MarketQueryResult;
+import com.example.propertymarketanalysis.dto.MarketRollup;
 import com.example.propertymarketanalysis.dto.MarketTrend;
+import com.example.propertymarketanalysis.dto.PropertyComparables;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.market.MarketSeries;
 
 import java.util.List;
 
@@ -27,7 +37,12 @@ public interface MarketAnalysisService {
     MarketTrend getCurrentTrend(String location, String propertyType);
     
     /**
-     * Get market comparison between different locations
+     * Get quarterly or yearly rollups of the full market history
+     */
+    List<MarketRollup> getHistoricalRollups(String location, String propertyType, MarketSeries.Granularity granularity);
+    
+    /**
+     * Get market comparison between different locations, in the order given
      */
     List<MarketAnalysisResponse> compareMarkets(List<String> locations, String propertyType, String timeframe);
     
@@ -36,13 +51,57 @@ public interface MarketAnalysisService {
      */
     MarketTrend getMarketForecast(String location, String propertyType, String forecastPeriod);
     
+    /**
+     * Answer a batch of analysis, historical, trend and forecast queries together, sharing work
+     * between queries for the same market. Results are in the order of {@code queries}
+     */
+    List<MarketQueryResult> analyzeBatch(List<MarketQuery> queries);
+    
     /**
      * Get all housing data from CSV file
      */
     List<Housing> getHousingData();
     
+    /**
+     * Get the current housing dataset version in columnar form, for streaming without
+     * materializing every row
+     */
+    HousingDataset getHousingDataset();
+    
+    /**
+     * Append housing records to the current dataset, updating statistics incrementally
+     */
+    HousingDataset appendHousing(List<Housing> records);
+    
+    /**
+     * Get housing records matching the given filter
+     */
+    List<Housing> searchHousing(HousingQuery query);
+    
+    /**
+     * Get the {@code k} housing records most similar to each subject property, in the order of
+     * {@code subjects}
+     */
+    List<PropertyComparables> findComparables(List<PropertyFeatures> subjects, int k);
+    
     /**
      * Get aggregate statistics for housing dataset
      */
     HousingStats getHousingStats();
+    
+    /**
+     * Get aggregate statistics of one dataset snapshot, for callers that also derive a version
+     * or ETag from it and need both to describe the same content
+     */
+    HousingStats getHousingStats(HousingDataset dataset);
+    
+    /**
+     * Get housing statistics broken down by the given dimension
+     */
+    HousingGroups getHousingGroups(HousingDimension dimension);
+    
+    /**
+     * Get housing statistics of one dataset snapshot broken down by the given dimension
+     */
+    HousingGroups getHousingGroups(HousingDataset dataset, HousingDimension dimension);
 }
\ No newline at end of file
@@ -1,42 +1,142 @@
 package com.example.propertymarketanalysis.service;
 
+import com.example.propertymarketanalysis.data.HousingAggregate;
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.data.HousingDataset;
+import com.example.propertymarketanalysis.data.HousingDimension;
+import com.example.propertymarketanalysis.data.HousingField;
+import com.example.propertymarketanalysis.data.HousingGrouper;
+import com.example.propertymarketanalysis.data.HousingIndex;
+import com.example.propertymarketanalysis.data.HousingNeighbors;
+import com.example.propertymarketanalysis.data.HousingMeasure;
+import com.example.propertymarketanalysis.data.QuantileSketch;
+import com.example.propertymarketanalysis.dto.ComparableProperty;
+import com.example.propertymarketanalysis.dto.Distribution;
+import com.example.propertymarketanalysis.dto.FieldStats;
+import com.example.propertymarketanalysis.dto.HistogramBin;
 import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.dto.HousingGroup;
+import com.example.propertymarketanalysis.dto.HousingGroups;
+import com.example.propertymarketanalysis.dto.HousingQuery;
 import com.example.propertymarketanalysis.dto.HousingStats;
 import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
 import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
 import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketQuery;
+import com.example.propertymarketanalysis.dto.MarketQueryResult;
+import com.example.propertymarketanalysis.dto.MarketRollup;
 import com.example.propertymarketanalysis.dto.MarketTrend;
-import org.springframework.core.io.ClassPathResource;
+import com.example.propertymarketanalysis.dto.PropertyComparables;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.market.HoltWintersModel;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketRandom;
+import com.example.propertymarketanalysis.market.MarketSeries;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.cache.annotation.Cacheable;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * Every public method is timed as {@code market.analysis.service}, tagged with the method name.
+ */
 @Service
+@Timed(value = "market.analysis.service", description = "Market analysis service calls")
 public class MarketAnalysisServiceImpl implements MarketAnalysisService {
     
-    private final Random random = new Random();
+    public static final int DEFAULT_COMPARE_PARALLELISM = 16;
+    public static final Duration DEFAULT_COMPARE_TIMEOUT = Duration.ofSeconds(5);
+    
+    /**
+     * Reported as the market condition of a location whose analysis did not finish in time, and as
+     * the error of a batch query whose market did not.
+     */
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    
+    private static final int HISTOGRAM_BINS = 20;
+    
+    private final HousingDataStore housingDataStore;
+    private final MarketSeriesStore marketSeriesStore;
+    private final MarketForecaster marketForecaster;
+    private final ObjectProvider<MarketAnalysisService> self;
+    private final ExecutorService compareExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("compare-markets-", 0).factory());
+    private final Semaphore compareParallelism;
+    private final Duration compareTimeout;
+    
+    /**
+     * @param self               this service as other beans see it, so the analyses a compare or batch
+     *                           request runs go through the caches and timers; without one (outside
+     *                           Spring) they are computed directly
+     * @param compareParallelism maximum number of location analyses running at once, shared by all
+     *                           compare requests
+     * @param compareTimeout     deadline for a whole compare or batch request
+     */
+    @Autowired
+    public MarketAnalysisServiceImpl(HousingDataStore housingDataStore,
+                                     MarketSeriesStore marketSeriesStore,
+                                     MarketForecaster marketForecaster,
+                                     @Value("${market.compare.max-parallelism:" + DEFAULT_COMPARE_PARALLELISM + "}") int compareParallelism,
+                                     @Value("${market.compare.timeout:5s}") Duration compareTimeout,
+                                     ObjectProvider<MarketAnalysisService> self) {
+        this.housingDataStore = housingDataStore;
+        this.marketSeriesStore = marketSeriesStore;
+        this.marketForecaster = marketForecaster;
+        this.self = self;
+        this.compareParallelism = new Semaphore(compareParallelism);
+        this.compareTimeout = compareTimeout;
+    }
+    
+    @PreDestroy
+    public void stop() {
+        compareExecutor.shutdownNow();
+    }
     
     @Override
+    @Cacheable(cacheNames = "marketAnalysis", keyGenerator = "marketCacheKeyGenerator", sync = true)
     public MarketAnalysisResponse getMarketAnalysis(MarketAnalysisRequest request) {
-        List<MarketData> historicalData = generateHistoricalData(request.getLocation(), request.getPropertyType(), request.getTimeframe());
-        MarketTrend currentTrend = generateCurrentTrend(request.getLocation(), request.getPropertyType());
+        return buildAnalysis(request.getLocation(), request.getPropertyType(), request.getTimeframe(),
+                marketSeriesStore.series(request.getLocation(), request.getPropertyType()),
+                generateCurrentTrend(request.getLocation(), request.getPropertyType()));
+    }
+    
+    private MarketAnalysisResponse buildAnalysis(String location, String propertyType, String timeframe,
+                                                 MarketSeries series, MarketTrend currentTrend) {
+        int months = getMonthsFromTimeframe(timeframe);
         
         MarketAnalysisResponse response = new MarketAnalysisResponse();
-        response.setLocation(request.getLocation());
-        response.setPropertyType(request.getPropertyType());
-        response.setTimeframe(request.getTimeframe());
-        response.setMarketData(historicalData);
+        response.setLocation(location);
+        response.setPropertyType(propertyType);
+        response.setTimeframe(timeframe);
+        response.setMarketData(series.window(months));
         response.setCurrentTrend(currentTrend);
-        response.setAverageGrowthRate(calculateAverageGrowthRate(historicalData));
+        response.setAverageGrowthRate(series.growthRate(months));
         response.setMarketCondition(determineMarketCondition(currentTrend));
         response.setAnalysisDate(LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
         
@@ -44,71 +144,254 @@ public class MarketAnalysisServiceImpl implements MarketAnalysisService {
     }
     
     @Override
+    @Cacheable(cacheNames = "historicalData", keyGenerator = "marketCacheKeyGenerator", sync = true)
     public List<MarketData> getHistoricalData(String location, String propertyType, String timeframe) {
-        return generateHistoricalData(location, propertyType, timeframe);
+        return marketSeriesStore.series(location, propertyType).window(getMonthsFromTimeframe(timeframe));
+    }
+    
+    @Override
+    public List<MarketRollup> getHistoricalRollups(String location, String propertyType, MarketSeries.Granularity granularity) {
+        return marketSeriesStore.series(location, propertyType).rollups(granularity);
     }
     
     @Override
+    @Cacheable(cacheNames = "currentTrend", keyGenerator = "marketCacheKeyGenerator", sync = true)
     public MarketTrend getCurrentTrend(String location, String propertyType) {
         return generateCurrentTrend(location, propertyType);
     }
     
+    /**
+     * Analyses every location concurrently on virtual threads, at most {@code compareParallelism}
+     * at a time across the service. Each location is a {@link #getMarketAnalysis} call through the
+     * caching proxy, so it is answered from and stored in the same cache as a single analysis.
+     * Results keep the order of {@code locations}; a location that
+     * has not finished when the request deadline passes is cancelled and reported with market
+     * condition {@link #UNAVAILABLE} instead of failing the whole comparison.
+     */
     @Override
     public List<MarketAnalysisResponse> compareMarkets(List<String> locations, String propertyType, String timeframe) {
-        List<MarketAnalysisResponse> comparisons = new ArrayList<>();
+        long deadline = System.nanoTime() + compareTimeout.toNanos();
+        List<MarketAnalysisRequest> requests = new ArrayList<>(locations.size());
+        List<Future<MarketAnalysisResponse>> pending = new ArrayList<>(locations.size());
+        MarketAnalysisService service = self();
         
         for (String location : locations) {
-            MarketAnalysisRequest request = new MarketAnalysisRequest();
-            request.setLocation(location);
-            request.setPropertyType(propertyType);
-            request.setTimeframe(timeframe);
-            
-            comparisons.add(getMarketAnalysis(request));
+            MarketAnalysisRequest request = request(location, propertyType, timeframe);
+            requests.add(request);
+            pending.add(compareExecutor.submit(() -> runBefore(() -> service.getMarketAnalysis(request), deadline)));
+        }
+        
+        List<MarketAnalysisResponse> comparisons = new ArrayList<>(pending.size());
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                comparisons.add(awaitComparison(pending.get(i), requests.get(i), deadline));
+            }
+        } finally {
+            // No-op for finished tasks; stops the rest if we leave early with an exception
+            pending.forEach(future -> future.cancel(true));
         }
         
         return comparisons;
     }
     
+    /**
+     * Answers each market's queries in one task, run like a {@link #compareMarkets} location: on the
+     * same executor, within the same parallelism limit, before the same kind of deadline. Each
+     * query is the matching single-query call through the caching proxy, so a batch both reuses and
+     * fills the caches those endpoints use; within a market every window is a view of one series,
+     * and identical queries share one result. Queries whose market has not finished by the deadline
+     * come back with error {@link #UNAVAILABLE} instead of failing the batch.
+     *
+     * @throws IllegalArgumentException if a query is null, has no location or has an unknown type
+     */
     @Override
+    public List<MarketQueryResult> analyzeBatch(List<MarketQuery> queries) {
+        long deadline = System.nanoTime() + compareTimeout.toNanos();
+        List<MarketQuery> normalized = new ArrayList<>(queries.size());
+        Map<MarketKey, List<MarketQuery>> markets = new LinkedHashMap<>();
+        for (MarketQuery query : queries) {
+            MarketQuery plan = normalize(query);
+            normalized.add(plan);
+            markets.computeIfAbsent(new MarketKey(plan.getLocation(), plan.getPropertyType()), key -> new ArrayList<>())
+                    .add(plan);
+        }
+        
+        Map<MarketKey, Future<Map<MarketQuery, MarketQueryResult>>> pending = new LinkedHashMap<>();
+        markets.forEach((market, marketQueries) -> pending.put(market,
+                compareExecutor.submit(() -> runBefore(() -> analyzeMarket(marketQueries), deadline))));
+        
+        Map<MarketQuery, MarketQueryResult> results = new HashMap<>();
+        try {
+            for (Map.Entry<MarketKey, Future<Map<MarketQuery, MarketQueryResult>>> entry : pending.entrySet()) {
+                Map<MarketQuery, MarketQueryResult> answered =
+                        await(entry.getValue(), deadline, "Market analysis failed for " + entry.getKey().location());
+                if (answered != null) {
+                    results.putAll(answered);
+                } else {
+                    markets.get(entry.getKey()).forEach(query -> results.put(query, result(query, UNAVAILABLE)));
+                }
+            }
+        } finally {
+            pending.values().forEach(future -> future.cancel(true));
+        }
+        
+        List<MarketQueryResult> ordered = new ArrayList<>(normalized.size());
+        for (MarketQuery query : normalized) {
+            ordered.add(results.get(query));
+        }
+        return ordered;
+    }
+    
+    private static MarketQuery normalize(MarketQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Batch queries must not be null");
+        }
+        if (query.getLocation() == null || query.getLocation().isBlank()) {
+            throw new IllegalArgumentException("Every query needs a location");
+        }
+        QueryType type;
+        try {
+            type = QueryType.valueOf(String.valueOf(query.getType()).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown query type: " + query.getType()
+                    + ", expected one of " + Arrays.toString(QueryType.values()), e);
+        }
+        String timeframe = switch (type) {
+            case TREND -> null;
+            case FORECAST -> query.getTimeframe() == null ? "6M" : query.getTimeframe().toUpperCase(Locale.ROOT);
+            default -> query.getTimeframe() == null ? "1Y" : query.getTimeframe().toUpperCase(Locale.ROOT);
+        };
+        return new MarketQuery(type.name(), query.getLocation(),
+                query.getPropertyType() == null ? "ALL" : query.getPropertyType(), timeframe);
+    }
+    
+    private Map<MarketQuery, MarketQueryResult> analyzeMarket(List<MarketQuery> queries) {
+        MarketAnalysisService service = self();
+        Map<MarketQuery, MarketQueryResult> results = new HashMap<>();
+        for (MarketQuery query : queries) {
+            if (results.containsKey(query)) {
+                continue;
+            }
+            MarketQueryResult result = result(query, null);
+            switch (QueryType.valueOf(query.getType())) {
+                case ANALYSIS -> result.setAnalysis(service.getMarketAnalysis(
+                        request(query.getLocation(), query.getPropertyType(), query.getTimeframe())));
+                case HISTORICAL -> result.setMarketData(
+                        service.getHistoricalData(query.getLocation(), query.getPropertyType(), query.getTimeframe()));
+                case TREND -> result.setTrend(service.getCurrentTrend(query.getLocation(), query.getPropertyType()));
+                case FORECAST -> result.setTrend(
+                        service.getMarketForecast(query.getLocation(), query.getPropertyType(), query.getTimeframe()));
+            }
+            results.put(query, result);
+        }
+        return results;
+    }
+    
+    private static MarketAnalysisRequest request(String location, String propertyType, String timeframe) {
+        MarketAnalysisRequest request = new MarketAnalysisRequest();
+        request.setLocation(location);
+        request.setPropertyType(propertyType);
+        request.setTimeframe(timeframe);
+        return request;
+    }
+    
+    private static MarketQueryResult result(MarketQuery query, String error) {
+        MarketQueryResult result = new MarketQueryResult();
+        result.setType(query.getType());
+        result.setLocation(query.getLocation());
+        result.setPropertyType(query.getPropertyType());
+        result.setTimeframe(query.getTimeframe());
+        result.setError(error);
+        return result;
+    }
+    
+    private MarketAnalysisService self() {
+        return self != null ? self.getObject() : this;
+    }
+    
+    private <T> T runBefore(Callable<T> task, long deadline) throws Exception {
+        if (!compareParallelism.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException();
+        }
+        try {
+            return task.call();
+        } finally {
+            compareParallelism.release();
+        }
+    }
+    
+    private MarketAnalysisResponse awaitComparison(Future<MarketAnalysisResponse> future,
+                                                   MarketAnalysisRequest request, long deadline) {
+        MarketAnalysisResponse response =
+                await(future, deadline, "Market analysis failed for " + request.getLocation());
+        return response != null ? response : unavailable(request);
+    }
+    
+    /**
+     * The task's result, or null if it did not finish before the deadline.
+     */
+    private static <T> T await(Future<T> future, long deadline, String failure) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(failure, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while comparing markets", e);
+        }
+    }
+    
+    private MarketAnalysisResponse unavailable(MarketAnalysisRequest request) {
+        MarketAnalysisResponse response = new MarketAnalysisResponse();
+        response.setLocation(request.getLocation());
+        response.setPropertyType(request.getPropertyType());
+        response.setTimeframe(request.getTimeframe());
+        response.setMarketCondition(UNAVAILABLE);
+        response.setAnalysisDate(LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        return response;
+    }
+    
+    /**
+     * Holt-Winters forecast of the average price {@code forecastPeriod} ahead, from the market's
+     * pre-fitted model, or its provisional model while the first fit runs in the background. The percentage change is from the smoothed current price, and volatility
+     * is the model's one-step error as a percentage of that price.
+     */
+    @Override
+    @Cacheable(cacheNames = "marketForecast", keyGenerator = "marketCacheKeyGenerator", sync = true)
     public MarketTrend getMarketForecast(String location, String propertyType, String forecastPeriod) {
+        return buildForecast(location, propertyType, forecastPeriod, marketForecaster.model(location, propertyType));
+    }
+    
+    private MarketTrend buildForecast(String location, String propertyType, String forecastPeriod,
+                                      HoltWintersModel model) {
+        HoltWintersModel.Forecast prediction = marketForecaster.forecast(model, getMonthsFromTimeframe(forecastPeriod));
+        double currentPrice = model.currentPrice();
+        
         MarketTrend forecast = new MarketTrend();
         forecast.setPeriod(forecastPeriod);
-        forecast.setPercentageChange(random.nextDouble() * 20 - 10); // -10% to +10%
+        forecast.setPercentageChange((prediction.price() - currentPrice) / currentPrice * 100);
         forecast.setTrendDirection(forecast.getPercentageChange() > 2 ? "UP" : 
                                  forecast.getPercentageChange() < -2 ? "DOWN" : "STABLE");
         forecast.setDescription("Forecast for " + location + " " + propertyType + " market over " + forecastPeriod);
-        forecast.setVolatility(random.nextDouble() * 15 + 5); // 5% to 20%
+        forecast.setVolatility(model.sigma() / currentPrice * 100);
+        forecast.setForecastPrice(prediction.price());
+        forecast.setForecastLow(prediction.lower());
+        forecast.setForecastHigh(prediction.upper());
         
         return forecast;
     }
     
-    private List<MarketData> generateHistoricalData(String location, String propertyType, String timeframe) {
-        List<MarketData> data = new ArrayList<>();
-        int months = getMonthsFromTimeframe(timeframe);
-        
-        double basePrice = 500000 + random.nextDouble() * 500000; // $500K to $1M base
-        
-        for (int i = months; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusMonths(i);
-            double priceVariation = 1 + (random.nextDouble() * 0.4 - 0.2); // ±20% variation
-            
-            MarketData marketData = new MarketData();
-            marketData.setDate(date);
-            marketData.setAveragePrice(basePrice * priceVariation);
-            marketData.setMedianPrice(basePrice * priceVariation * 0.95);
-            marketData.setTotalSales(random.nextInt(500) + 100);
-            marketData.setPricePerSquareFoot(marketData.getAveragePrice() / (2000 + random.nextInt(1000)));
-            marketData.setDaysOnMarket(random.nextInt(60) + 20);
-            marketData.setLocation(location);
-            marketData.setPropertyType(propertyType);
-            
-            data.add(marketData);
-        }
-        
-        return data;
-    }
-    
     private MarketTrend generateCurrentTrend(String location, String propertyType) {
+        SplittableRandom random = MarketRandom.forKey("trend", location, propertyType);
         MarketTrend trend = new MarketTrend();
         trend.setPeriod("Current Month");
         trend.setPercentageChange(random.nextDouble() * 20 - 10); // -10% to +10%
@@ -120,15 +403,6 @@ public class MarketAnalysisServiceImpl implements MarketAnalysisService {
         return trend;
     }
     
-    private double calculateAverageGrowthRate(List<MarketData> data) {
-        if (data.size() < 2) return 0.0;
-        
-        double firstPrice = data.get(0).getAveragePrice();
-        double lastPrice = data.get(data.size() - 1).getAveragePrice();
-        
-        return ((lastPrice - firstPrice) / firstPrice) * 100;
-    }
-    
     private String determineMarketCondition(MarketTrend trend) {
         if (trend.getPercentageChange() > 5) {
             return "SELLER";
@@ -153,79 +427,172 @@ public class MarketAnalysisServiceImpl implements MarketAnalysisService {
     
     @Override
     public List<Housing> getHousingData() {
-        List<Housing> housingList = new ArrayList<>();
+        return housingDataStore.columns().asList();
+    }
+    
+    @Override
+    public HousingDataset getHousingDataset() {
+        return housingDataStore.dataset();
+    }
+    
+    @Override
+    public HousingDataset appendHousing(List<Housing> records) {
+        return housingDataStore.append(records);
+    }
+    
+    @Override
+    public List<Housing> searchHousing(HousingQuery query) {
+        HousingIndex index = housingDataStore.index();
+        HousingColumns columns = index.columns();
+        int[] rows = index.select(query);
         
-        try {
-            ClassPathResource resource = new ClassPathResource("data/housing.csv");
-            BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()));
-            
-            String line;
-            boolean isFirstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                // Skip header line
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    continue;
-                }
-                
-                String[] values = line.split(",");
-                if (values.length >= 9) {
-                    Housing housing = new Housing();
-                    housing.setId(Long.parseLong(values[0].trim()));
-                    housing.setSquareFootage(Integer.parseInt(values[1].trim()));
-                    housing.setBedrooms(Integer.parseInt(values[2].trim()));
-                    housing.setBathrooms(Double.parseDouble(values[3].trim()));
-                    housing.setYearBuilt(Integer.parseInt(values[4].trim()));
-                    housing.setLotSize(Integer.parseInt(values[5].trim()));
-                    housing.setDistanceToCityCenter(Double.parseDouble(values[6].trim()));
-                    housing.setSchoolRating(Double.parseDouble(values[7].trim()));
-                    housing.setPrice(Integer.parseInt(values[8].trim()));
-                    
-                    housingList.add(housing);
-                }
-            }
-            
-            reader.close();
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading housing data from CSV file", e);
-        } catch (NumberFormatException e) {
-            throw new RuntimeException("Error parsing housing data from CSV file", e);
+        List<Housing> matches = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            matches.add(columns.toHousing(row));
         }
-        
-        return housingList;
+        return matches;
+    }
+    
+    /**
+     * Subjects are searched in parallel against the data store's k-d tree. After a reload or append
+     * the previous tree keeps answering until its replacement has been built in the background.
+     */
+    @Override
+    public List<PropertyComparables> findComparables(List<PropertyFeatures> subjects, int k) {
+        HousingNeighbors neighbors = housingDataStore.neighbors();
+        HousingColumns columns = neighbors.columns();
+        return subjects.parallelStream()
+                .map(subject -> toComparables(subject, neighbors.nearest(subject, k), columns))
+                .toList();
+    }
+    
+    private static PropertyComparables toComparables(PropertyFeatures subject, List<HousingNeighbors.Neighbor> nearest,
+                                                     HousingColumns columns) {
+        List<ComparableProperty> comparables = new ArrayList<>(nearest.size());
+        int[] prices = new int[nearest.size()];
+        for (int i = 0; i < nearest.size(); i++) {
+            HousingNeighbors.Neighbor neighbor = nearest.get(i);
+            comparables.add(new ComparableProperty(columns.toHousing(neighbor.row()), neighbor.distance()));
+            prices[i] = columns.price(neighbor.row());
+        }
+        Arrays.sort(prices);
+        Double medianPrice = prices.length == 0 ? null
+                : prices.length % 2 == 1 ? (double) prices[prices.length / 2]
+                : (prices[prices.length / 2 - 1] + (double) prices[prices.length / 2]) / 2;
+        return new PropertyComparables(subject, comparables, medianPrice);
     }
     
+    /**
+     * Reads the dataset once and goes through the proxy, so the cache key and the cached stats
+     * come from the same snapshot even if a reload lands in between.
+     */
     @Override
-    @Cacheable(cacheNames = "housingStats", keyGenerator = "housingStatsKeyGenerator")
     public HousingStats getHousingStats() {
-        List<Housing> housingList = getHousingData();
-        int count = housingList.size();
+        return self().getHousingStats(housingDataStore.dataset());
+    }
+    
+    @Override
+    @Cacheable(cacheNames = "housingStats", key = "#dataset.fingerprint()", sync = true)
+    public HousingStats getHousingStats(HousingDataset dataset) {
+        // Maintained incrementally by the data store, so this is O(fields) rather than a rescan
+        return toHousingStats(dataset.aggregate());
+    }
+    
+    /**
+     * Reads the dataset once and goes through the proxy, like {@link #getHousingStats()}.
+     */
+    @Override
+    public HousingGroups getHousingGroups(HousingDimension dimension) {
+        return self().getHousingGroups(housingDataStore.dataset(), dimension);
+    }
+    
+    /**
+     * Keyed by dataset version; a reload or append bumps it, so a group is never served from
+     * older content.
+     */
+    @Override
+    @Cacheable(cacheNames = "housingGroups", key = "#dataset.version() + ':' + #dimension", sync = true)
+    public HousingGroups getHousingGroups(HousingDataset dataset, HousingDimension dimension) {
+        NavigableMap<Integer, HousingAggregate> aggregates =
+                HousingGrouper.group(dataset.columns(), dataset.aggregate(), dimension);
+        
+        List<HousingGroup> groups = new ArrayList<>(aggregates.size());
+        aggregates.forEach((key, aggregate) -> groups.add(new HousingGroup(
+                dimension.label(key),
+                dimension.lowerBound(key),
+                dimension.upperBound(key),
+                toHousingStats(aggregate))));
+        return new HousingGroups(dimension.name(), dataset.version(), groups);
+    }
+    
+    /**
+     * Distributions are only filled in for aggregates that keep sketches.
+     */
+    private static HousingStats toHousingStats(HousingAggregate aggregate) {
+        boolean empty = aggregate.count() == 0;
 
-        Double averagePrice = housingList.stream().mapToInt(Housing::getPrice).average().orElse(0.0);
-        Integer minPrice = housingList.isEmpty() ? null : housingList.stream().mapToInt(Housing::getPrice).min().getAsInt();
-        Integer maxPrice = housingList.isEmpty() ? null : housingList.stream().mapToInt(Housing::getPrice).max().getAsInt();
+        Map<String, FieldStats> fields = new LinkedHashMap<>();
+        for (HousingField field : HousingField.values()) {
+            fields.put(field.propertyName(), new FieldStats(
+                    aggregate.count(),
+                    aggregate.sum(field),
+                    empty ? null : aggregate.min(field),
+                    empty ? null : aggregate.max(field),
+                    aggregate.mean(field),
+                    aggregate.variance(field),
+                    aggregate.standardDeviation(field)));
+        }
 
-        Double averageBedrooms = housingList.stream().mapToInt(Housing::getBedrooms).average().orElse(0.0);
-        Double averageBathrooms = housingList.stream().mapToDouble(Housing::getBathrooms).average().orElse(0.0);
-        Double averageSquareFootage = housingList.stream().mapToInt(Housing::getSquareFootage).average().orElse(0.0);
-        Double averageYearBuilt = housingList.stream().mapToInt(Housing::getYearBuilt).average().orElse(0.0);
-        Double averageLotSize = housingList.stream().mapToInt(Housing::getLotSize).average().orElse(0.0);
-        Double averageDistanceToCityCenter = housingList.stream().mapToDouble(Housing::getDistanceToCityCenter).average().orElse(0.0);
-        Double averageSchoolRating = housingList.stream().mapToDouble(Housing::getSchoolRating).average().orElse(0.0);
+        QuantileSketch priceSketch = aggregate.sketch(HousingMeasure.PRICE);
+        Map<String, Distribution> distributions = null;
+        if (priceSketch != null) {
+            distributions = new LinkedHashMap<>();
+            for (HousingMeasure measure : HousingMeasure.values()) {
+                distributions.put(measure.propertyName(), toDistribution(aggregate.sketch(measure)));
+            }
+        }
 
         return new HousingStats(
-                count,
-                averagePrice,
-                minPrice,
-                maxPrice,
-                averageBedrooms,
-                averageBathrooms,
-                averageSquareFootage,
-                averageYearBuilt,
-                averageLotSize,
-                averageDistanceToCityCenter,
-                averageSchoolRating
+                (int) aggregate.count(),
+                aggregate.mean(HousingField.PRICE),
+                empty ? null : (int) aggregate.min(HousingField.PRICE),
+                empty ? null : (int) aggregate.max(HousingField.PRICE),
+                aggregate.mean(HousingField.BEDROOMS),
+                aggregate.mean(HousingField.BATHROOMS),
+                aggregate.mean(HousingField.SQUARE_FOOTAGE),
+                aggregate.mean(HousingField.YEAR_BUILT),
+                aggregate.mean(HousingField.LOT_SIZE),
+                aggregate.mean(HousingField.DISTANCE_TO_CITY_CENTER),
+                aggregate.mean(HousingField.SCHOOL_RATING),
+                fields,
+                empty || priceSketch == null ? null : priceSketch.quantile(0.5),
+                distributions
         );
     }
-}
\ No newline at end of file
+    
+    private static Distribution toDistribution(QuantileSketch sketch) {
+        if (sketch.count() == 0) {
+            return new Distribution(null, null, null, null, List.of());
+        }
+        double lower = sketch.quantile(0.01);
+        double upper = sketch.quantile(0.99);
+        long[] counts = sketch.histogram(lower, upper, HISTOGRAM_BINS);
+        double width = (upper - lower) / HISTOGRAM_BINS;
+        
+        List<HistogramBin> histogram = new ArrayList<>(HISTOGRAM_BINS);
+        for (int i = 0; i < HISTOGRAM_BINS; i++) {
+            histogram.add(new HistogramBin(lower + i * width, lower + (i + 1) * width, counts[i]));
+        }
+        return new Distribution(
+                sketch.quantile(0.10),
+                sketch.quantile(0.50),
+                sketch.quantile(0.90),
+                sketch.quantile(0.99),
+                histogram);
+    }
+    
+    private enum QueryType { ANALYSIS, HISTORICAL, TREND, FORECAST }
+    
+    private record MarketKey(String location, String propertyType) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.propertymarketanalysis.service;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.dto.PropertyValuation;
+
+import java.util.List;
+
+public interface ValuationService {
+    
+    /**
+     * Estimate the price of each property, in the order given
+     */
+    List<PropertyValuation> estimateValues(List<PropertyFeatures> properties);
+}
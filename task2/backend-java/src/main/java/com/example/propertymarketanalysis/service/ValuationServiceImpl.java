@@ -0,0 +1,50 @@
+package com.example.propertymarketanalysis.service;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.example.propertymarketanalysis.dto.PropertyValuation;
+import com.example.propertymarketanalysis.valuation.LinearValuationModel;
+import com.example.propertymarketanalysis.valuation.ValuationClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ValuationServiceImpl implements ValuationService {
+    
+    private final ValuationClient valuationClient;
+    private final LinearValuationModel localModel;
+    private final boolean remote;
+    
+    /**
+     * @param engine {@code local} to score with the in-process copy of the model, or {@code remote}
+     *               (the default) to call the task1 model service
+     */
+    public ValuationServiceImpl(ValuationClient valuationClient,
+                                LinearValuationModel localModel,
+                                @Value("${valuation.engine:remote}") String engine) {
+        this.valuationClient = valuationClient;
+        this.localModel = localModel;
+        this.remote = "remote".equalsIgnoreCase(engine.trim());
+    }
+    
+    @Override
+    public List<PropertyValuation> estimateValues(List<PropertyFeatures> properties) {
+        List<Double> prices = remote ? valuationClient.estimateAll(properties) : scoreLocally(properties);
+        List<PropertyValuation> valuations = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            valuations.add(new PropertyValuation(properties.get(i), prices.get(i)));
+        }
+        return valuations;
+    }
+    
+    private List<Double> scoreLocally(List<PropertyFeatures> properties) {
+        List<Double> prices = new ArrayList<>(properties.size());
+        for (PropertyFeatures features : properties) {
+            // Rounded to cents like the Python service's responses
+            prices.add(Math.round(localModel.score(features) * 100) / 100.0);
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.data.HousingField;
+
+/**
+ * Scratch copy of up to {@link #ROWS} consecutive rows of the model's input columns, widened to
+ * double. Bulk scoring copies the dataset through one block at a time, so the scoring loops read
+ * plain arrays that stay in cache and never depend on how {@link HousingColumns} stores its data.
+ */
+final class FeatureBlock {
+
+    static final int ROWS = 1024;
+
+    /**
+     * Scores the {@link #length} rows of a block into {@code prices} from {@code offset}.
+     */
+    interface Scorer {
+        void score(HousingFeatureWeights weights, FeatureBlock block, double[] prices, int offset);
+    }
+
+    static final Scorer SCALAR = (weights, block, prices, offset) -> block.scoreScalar(weights, prices, offset, 0);
+
+    final double[] squareFootage = new double[ROWS];
+    final double[] bedrooms = new double[ROWS];
+    final double[] bathrooms = new double[ROWS];
+    final double[] yearBuilt = new double[ROWS];
+    final double[] lotSize = new double[ROWS];
+    final double[] distanceToCityCenter = new double[ROWS];
+    final double[] schoolRating = new double[ROWS];
+    int length;
+
+    /**
+     * Fill the block from {@code row} onwards, as many rows as fit or remain.
+     */
+    void load(HousingColumns columns, int row) {
+        length = Math.min(ROWS, columns.size() - row);
+        columns.copyColumn(HousingField.SQUARE_FOOTAGE, row, squareFootage, 0, length);
+        columns.copyColumn(HousingField.BEDROOMS, row, bedrooms, 0, length);
+        columns.copyColumn(HousingField.BATHROOMS, row, bathrooms, 0, length);
+        columns.copyColumn(HousingField.YEAR_BUILT, row, yearBuilt, 0, length);
+        columns.copyColumn(HousingField.LOT_SIZE, row, lotSize, 0, length);
+        columns.copyColumn(HousingField.DISTANCE_TO_CITY_CENTER, row, distanceToCityCenter, 0, length);
+        columns.copyColumn(HousingField.SCHOOL_RATING, row, schoolRating, 0, length);
+    }
+
+    /**
+     * Scalar loop over block rows {@code [from, length)}; also finishes the tail after the vector loop.
+     */
+    void scoreScalar(HousingFeatureWeights weights, double[] prices, int offset, int from) {
+        for (int i = from; i < length; i++) {
+            prices[offset + i] = weights.score(squareFootage[i], bedrooms[i], bathrooms[i], yearBuilt[i],
+                    lotSize[i], distanceToCityCenter[i], schoolRating[i]);
+        }
+    }
+}
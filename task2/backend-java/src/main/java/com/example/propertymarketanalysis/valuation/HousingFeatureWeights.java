@@ -0,0 +1,25 @@
+package com.example.propertymarketanalysis.valuation;
+
+/**
+ * A linear price model over the raw property features: a bias, one weight per feature and one on
+ * the square-footage-to-lot-size ratio (a lot size of zero counts as one). Square footage itself
+ * only enters through the ratio.
+ */
+record HousingFeatureWeights(double bias, double lotSize, double yearBuilt, double schoolRating,
+                             double distanceToCityCenter, double bedrooms, double bathrooms,
+                             double footageLotRatio) {
+
+    // Same operation order as the vector kernel, so both paths agree exactly
+    double score(double squareFootage, double bedrooms, double bathrooms, double yearBuilt, double lotSize,
+                 double distanceToCityCenter, double schoolRating) {
+        double ratio = squareFootage / (lotSize == 0 ? 1 : lotSize);
+        return bias
+                + lotSize * this.lotSize
+                + yearBuilt * this.yearBuilt
+                + schoolRating * this.schoolRating
+                + distanceToCityCenter * this.distanceToCityCenter
+                + bedrooms * this.bedrooms
+                + bathrooms * this.bathrooms
+                + ratio * this.footageLotRatio;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * In-process copy of the task1 linear regression model, loaded from its {@code model_info.json}.
+ * The Python service standardizes seven derived features and applies the regression:
+ * <pre>
+ *   price = intercept + sum(coef[f] * (x[f] - mean[f]) / scale[f])
+ * </pre>
+ * Scaling is folded into one weight per raw input plus a bias, so scoring a property costs seven
+ * multiply-adds and a division. Bulk scoring over {@link HousingColumns} copies the inputs through
+ * a {@link FeatureBlock} and scores each block with the incubating Vector API when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}, and an equivalent scalar loop otherwise.
+ */
+public final class LinearValuationModel {
+
+    private static final FeatureBlock.Scorer BLOCK_SCORER = blockScorer();
+
+    /** Model features, in the order the Python service feeds them to the scaler. */
+    static final List<String> FEATURES = List.of("lot_size", "house_age", "school_rating",
+            "distance_to_city_center", "bedrooms", "bathrooms", "footage_lot_ratio");
+
+    // Weights on the raw inputs; house_age = referenceYear - yearBuilt is folded into bias and yearBuilt
+    private final HousingFeatureWeights weights;
+
+    private LinearValuationModel(double[] weights, double bias) {
+        this.weights = new HousingFeatureWeights(bias, weights[0], -weights[1], weights[2], weights[3], weights[4],
+                weights[5], weights[6]);
+    }
+
+    public static LinearValuationModel load(Resource resource, ObjectMapper objectMapper) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return fromModelInfo(objectMapper.readTree(in));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the intercept, a coefficient, a mean or a scale is missing
+     */
+    public static LinearValuationModel fromModelInfo(JsonNode info) {
+        double[] weights = new double[FEATURES.size()];
+        double bias = required(info, "intercept");
+        for (int i = 0; i < weights.length; i++) {
+            String feature = FEATURES.get(i);
+            weights[i] = required(info.path("coefficients"), feature) / required(info.path("feature_scales"), feature);
+            bias -= weights[i] * required(info.path("feature_means"), feature);
+        }
+        // house_age weight times the reference year
+        bias += weights[1] * required(info, "reference_year");
+        return new LinearValuationModel(weights, bias);
+    }
+
+    private static FeatureBlock.Scorer blockScorer() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return FeatureBlock.SCALAR;
+        }
+        try {
+            // By name, so only VectorScoring is compiled against the incubator module
+            return (FeatureBlock.Scorer) Class.forName(LinearValuationModel.class.getPackageName() + ".VectorScoring")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return FeatureBlock.SCALAR;
+        }
+    }
+
+    private static double required(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isNumber()) {
+            throw new IllegalArgumentException("Model info is missing numeric " + field);
+        }
+        return value.asDouble();
+    }
+
+    /**
+     * Whether {@link #scoreAll(HousingColumns, double[])} runs on the Vector API.
+     */
+    public static boolean vectorized() {
+        return BLOCK_SCORER != FeatureBlock.SCALAR;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a feature is missing
+     */
+    public double score(PropertyFeatures features) {
+        return score(ValuationKey.of(features));
+    }
+
+    /**
+     * Score a housing record's features; its price is ignored.
+     *
+     * @throws IllegalArgumentException if a feature is missing
+     */
+    public double score(Housing housing) {
+        return score(ValuationKey.of(housing));
+    }
+
+    private double score(ValuationKey key) {
+        return weights.score(key.squareFootage(), key.bedrooms(), key.bathrooms(), key.yearBuilt(), key.lotSize(),
+                key.distanceToCityCenter(), key.schoolRating());
+    }
+
+    public double[] scoreAll(HousingColumns columns) {
+        double[] prices = new double[columns.size()];
+        scoreAll(columns, prices);
+        return prices;
+    }
+
+    /**
+     * Score every row of {@code columns} into the first {@code columns.size()} entries of {@code prices}.
+     */
+    public void scoreAll(HousingColumns columns, double[] prices) {
+        FeatureBlock block = new FeatureBlock();
+        for (int row = 0; row < columns.size(); row += FeatureBlock.ROWS) {
+            block.load(columns, row);
+            BLOCK_SCORER.score(weights, block, prices, row);
+        }
+    }
+}
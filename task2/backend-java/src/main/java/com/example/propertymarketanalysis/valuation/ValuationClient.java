@@ -0,0 +1,255 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client for the task1 valuation model ({@code POST /predict}, which scores a JSON array).
+ *
+ * <p>Estimates requested within {@code batchWindow} of each other are sent as one array call,
+ * or sooner once {@code maxBatchSize} are waiting. Results are cached by the canonical feature
+ * values, and concurrent requests for the same features share one pending estimate. A single
+ * {@link HttpClient} keeps connections to the model alive between batches; consecutive failures
+ * open a {@link CircuitBreaker} so callers fail fast while the model is down.
+ */
+@Slf4j
+@Component
+public class ValuationClient {
+
+    /**
+     * @param modelUrl         base URL of the model service
+     * @param batchWindow      how long the first estimate of a batch waits for others to join it
+     * @param maxBatchSize     estimates per model call
+     * @param connectTimeout   timeout for opening a connection
+     * @param requestTimeout   timeout for a whole model call
+     * @param failureThreshold consecutive failed calls that open the circuit
+     * @param openDuration     how long the circuit stays open before a trial call
+     * @param cacheSpec        Caffeine spec of the valuation cache
+     */
+    public record Settings(URI modelUrl, Duration batchWindow, int maxBatchSize, Duration connectTimeout,
+                           Duration requestTimeout, int failureThreshold, Duration openDuration, String cacheSpec) {
+    }
+
+    private record Pending(PropertyFeatures features, CompletableFuture<Double> result) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter requestWriter;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache<ValuationKey, Double> cache;
+    private final ConcurrentMap<ValuationKey, CompletableFuture<Double>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("valuation-batcher").daemon().factory());
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    @Autowired
+    public ValuationClient(ObjectMapper objectMapper,
+                           @Value("${valuation.model.url:http://localhost:8000}") URI modelUrl,
+                           @Value("${valuation.batch.window:10ms}") Duration batchWindow,
+                           @Value("${valuation.batch.max-size:256}") int maxBatchSize,
+                           @Value("${valuation.connect-timeout:2s}") Duration connectTimeout,
+                           @Value("${valuation.request-timeout:5s}") Duration requestTimeout,
+                           @Value("${valuation.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${valuation.circuit.open-duration:30s}") Duration openDuration,
+                           @Value("${cache.spec.valuations:maximumSize=10000,expireAfterWrite=1h,recordStats}") String cacheSpec) {
+        this(objectMapper, new Settings(modelUrl, batchWindow, maxBatchSize, connectTimeout, requestTimeout,
+                failureThreshold, openDuration, cacheSpec), Clock.systemUTC());
+    }
+
+    ValuationClient(ObjectMapper objectMapper, Settings settings, Clock clock) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.requestWriter = objectMapper.copy()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, PropertyFeatures.class));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.connectTimeout())
+                .build();
+        this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration(), clock);
+        this.cache = Caffeine.from(settings.cacheSpec()).build();
+    }
+
+    /**
+     * Estimate the price of one property. The future fails with
+     * {@link ValuationUnavailableException} if the model cannot be used.
+     *
+     * @throws IllegalArgumentException if a feature is missing
+     */
+    public CompletableFuture<Double> estimate(PropertyFeatures features) {
+        ValuationKey key = ValuationKey.of(features);
+        Double cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<Double> estimate = new CompletableFuture<>();
+        CompletableFuture<Double> existing = inFlight.putIfAbsent(key, estimate);
+        if (existing != null) {
+            return existing;
+        }
+        // Failures are not cached; the next request for these features asks the model again
+        enqueue(features).whenComplete((price, error) -> {
+            if (error == null) {
+                cache.put(key, price);
+            }
+            inFlight.remove(key, estimate);
+            if (error == null) {
+                estimate.complete(price);
+            } else {
+                estimate.completeExceptionally(error);
+            }
+        });
+        return estimate;
+    }
+
+    /**
+     * Estimate every property, in order, waiting for the model.
+     */
+    public List<Double> estimateAll(List<PropertyFeatures> properties) {
+        List<CompletableFuture<Double>> futures = new ArrayList<>(properties.size());
+        for (PropertyFeatures features : properties) {
+            futures.add(estimate(features));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ValuationUnavailableException cause) {
+                throw cause;
+            }
+            throw new ValuationUnavailableException("Valuation failed", e.getCause());
+        }
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<Double> enqueue(PropertyFeatures features) {
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        boolean full;
+        synchronized (lock) {
+            pending.add(new Pending(features, result));
+            full = pending.size() >= settings.maxBatchSize();
+            if (!full && scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, settings.batchWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full) {
+            flush();
+        }
+        return result;
+    }
+
+    /**
+     * Send everything waiting as one model call; runs when the batch window ends or the batch is full.
+     */
+    void flush() {
+        List<Pending> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Encode first: a trial call admitted by a half-open circuit must report back to it
+        HttpRequest request;
+        try {
+            List<PropertyFeatures> features = batch.stream().map(Pending::features).toList();
+            request = HttpRequest.newBuilder(settings.modelUrl().resolve("/predict"))
+                    .timeout(settings.requestTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(requestWriter.writeValueAsBytes(features)))
+                    .build();
+        } catch (IOException e) {
+            failAll(batch, new ValuationUnavailableException("Could not encode valuation request", e));
+            return;
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            failAll(batch, new ValuationUnavailableException("Valuation model circuit is open"));
+            return;
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> complete(batch, response, error));
+    }
+
+    private void complete(List<Pending> batch, HttpResponse<byte[]> response, Throwable error) {
+        if (error != null) {
+            circuitBreaker.onFailure();
+            log.warn("Valuation model call failed: {}", error.toString());
+            failAll(batch, new ValuationUnavailableException("Valuation model unreachable", error));
+            return;
+        }
+        if (response.statusCode() != 200) {
+            // A rejected request says nothing about the model's health; an error status does
+            if (response.statusCode() >= 500) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            failAll(batch, new ValuationUnavailableException("Valuation model returned " + response.statusCode()));
+            return;
+        }
+        try {
+            JsonNode predictions = objectMapper.readTree(response.body()).path("predictions");
+            if (!predictions.isArray() || predictions.size() != batch.size()) {
+                throw new IOException("Expected " + batch.size() + " predictions");
+            }
+            circuitBreaker.onSuccess();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(predictions.get(i).asDouble());
+            }
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            failAll(batch, new ValuationUnavailableException("Invalid valuation model response", e));
+        }
+    }
+
+    private static void failAll(List<Pending> batch, ValuationUnavailableException error) {
+        for (Pending entry : batch) {
+            entry.result().completeExceptionally(error);
+        }
+    }
+}
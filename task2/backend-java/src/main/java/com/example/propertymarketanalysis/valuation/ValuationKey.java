@@ -0,0 +1,55 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+
+/**
+ * Validated, canonical model inputs of a {@link PropertyFeatures} or {@link Housing}: the raw
+ * feature values, with {@code -0.0} folded into {@code 0.0}, so requests that reach the model as
+ * the same numbers share one cache entry however they were written in JSON.
+ */
+record ValuationKey(double squareFootage, int bedrooms, double bathrooms, int yearBuilt, int lotSize,
+                    double distanceToCityCenter, double schoolRating) {
+
+    /**
+     * @throws IllegalArgumentException if a feature is missing or not a finite number
+     */
+    static ValuationKey of(PropertyFeatures features) {
+        return new ValuationKey(
+                finite("squareFootage", features.getSquareFootage()),
+                required("bedrooms", features.getBedrooms()),
+                finite("bathrooms", features.getBathrooms()),
+                required("yearBuilt", features.getYearBuilt()),
+                required("lotSize", features.getLotSize()),
+                finite("distanceToCityCenter", features.getDistanceToCityCenter()),
+                finite("schoolRating", features.getSchoolRating()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a feature is missing or not a finite number
+     */
+    static ValuationKey of(Housing housing) {
+        return new ValuationKey(
+                required("squareFootage", housing.getSquareFootage()),
+                required("bedrooms", housing.getBedrooms()),
+                finite("bathrooms", housing.getBathrooms()),
+                required("yearBuilt", housing.getYearBuilt()),
+                required("lotSize", housing.getLotSize()),
+                finite("distanceToCityCenter", housing.getDistanceToCityCenter()),
+                finite("schoolRating", housing.getSchoolRating()));
+    }
+
+    private static int required(String name, Integer value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static double finite(String name, Double value) {
+        if (value == null || !Double.isFinite(value)) {
+            throw new IllegalArgumentException("Missing or invalid " + name);
+        }
+        return value + 0.0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.propertymarketanalysis.valuation;
+
+/**
+ * The valuation model could not be reached, failed, or is being skipped while its circuit is open.
+ */
+public class ValuationUnavailableException extends RuntimeException {
+
+    public ValuationUnavailableException(String message) {
+        super(message);
+    }
+
+    public ValuationUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.propertymarketanalysis.valuation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel for {@link LinearValuationModel#scoreAll}. The only class that needs the
+ * {@code jdk.incubator.vector} module, both to compile (it has its own compiler execution in the
+ * pom) and to load: the model instantiates it reflectively when the module is present.
+ */
+final class VectorScoring implements FeatureBlock.Scorer {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void score(HousingFeatureWeights weights, FeatureBlock block, double[] prices, int offset) {
+        DoubleVector bias = DoubleVector.broadcast(DOUBLES, weights.bias());
+        DoubleVector one = DoubleVector.broadcast(DOUBLES, 1.0);
+        int bound = DOUBLES.loopBound(block.length);
+        for (int i = 0; i < bound; i += DOUBLES.length()) {
+            DoubleVector lot = DoubleVector.fromArray(DOUBLES, block.lotSize, i);
+            DoubleVector ratio = DoubleVector.fromArray(DOUBLES, block.squareFootage, i)
+                    .div(lot.blend(one, lot.eq(0.0)));
+            bias.add(lot.mul(weights.lotSize()))
+                    .add(DoubleVector.fromArray(DOUBLES, block.yearBuilt, i).mul(weights.yearBuilt()))
+                    .add(DoubleVector.fromArray(DOUBLES, block.schoolRating, i).mul(weights.schoolRating()))
+                    .add(DoubleVector.fromArray(DOUBLES, block.distanceToCityCenter, i)
+                            .mul(weights.distanceToCityCenter()))
+                    .add(DoubleVector.fromArray(DOUBLES, block.bedrooms, i).mul(weights.bedrooms()))
+                    .add(DoubleVector.fromArray(DOUBLES, block.bathrooms, i).mul(weights.bathrooms()))
+                    .add(ratio.mul(weights.footageLotRatio()))
+                    .intoArray(prices, offset + i);
+        }
+        block.scoreScalar(weights, prices, offset, bound);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.propertymarketanalysis.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class AdmissionFilterTest {
+
+    private static final String TREND = "/api/market-analysis/trend";
+    private static final String HEALTH = "/api/market-analysis/health";
+    private static final String STREAM = "/api/market-analysis/housing";
+
+    private AdmissionControl control;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // One slot per endpoint and no queue, so a second request is rejected at once
+        control = new AdmissionControl(true, 1, 1, 1, 0, Duration.ofMillis(10), Duration.ofMillis(1500),
+                new String[] {HEALTH, "/actuator/**"}, new SimpleMeterRegistry());
+        control.register("GET", TREND);
+        control.register("GET", HEALTH);
+        control.register("GET", STREAM);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController())
+                .addFilters(new AdmissionFilter(control))
+                .build();
+    }
+
+    @Test
+    void testFullEndpointAnswers503WithRetryAfter() throws Exception {
+        // Given
+        AdmissionLane lane = control.lane("GET", TREND);
+        assertTrue(lane.tryAcquire());
+
+        // When / Then
+        mockMvc.perform(get(TREND))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        lane.release(0);
+        mockMvc.perform(get(TREND)).andExpect(status().isOk());
+        assertEquals(0, lane.inflight());
+    }
+
+    @Test
+    void testExemptHealthCheckNeverLimited() throws Exception {
+        // Given: every lane is full
+        assertTrue(control.lane("GET", HEALTH).tryAcquire());
+        assertTrue(control.lane("GET", TREND).tryAcquire());
+
+        // When / Then
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(HEALTH)).andExpect(status().isOk());
+        }
+        assertEquals(1, control.lane("GET", HEALTH).inflight());
+    }
+
+    @Test
+    void testAsyncResponseHoldsSlotUntilComplete() throws Exception {
+        // Given
+        AdmissionLane lane = control.lane("GET", STREAM);
+
+        // When: the handler has returned but the async response has not finished
+        MvcResult started = mockMvc.perform(get(STREAM)).andExpect(request().asyncStarted()).andReturn();
+
+        // Then
+        assertEquals(1, lane.inflight());
+        mockMvc.perform(get(STREAM)).andExpect(status().isServiceUnavailable());
+
+        // When: the response completes
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // Then
+        assertEquals(0, lane.inflight());
+        mockMvc.perform(get(STREAM)).andExpect(request().asyncStarted());
+    }
+
+    @RestController
+    static class TestController {
+
+        @GetMapping(TREND)
+        String trend() {
+            return "{}";
+        }
+
+        @GetMapping(HEALTH)
+        String health() {
+            return "OK";
+        }
+
+        @GetMapping(STREAM)
+        Callable<String> stream() {
+            return () -> "[]";
+        }
+    }
+}
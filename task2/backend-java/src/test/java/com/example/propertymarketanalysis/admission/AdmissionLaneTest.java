@@ -0,0 +1,102 @@
+package com.example.propertymarketanalysis.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionLaneTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRequestsOverLimitQueueThenGetRejected() throws Exception {
+        // Given: two slots, one queue place, waits of up to 2s
+        AdmissionControl control = new AdmissionControl(true, 2, 1, 10, 1, Duration.ofSeconds(2), Duration.ofSeconds(1),
+                new String[] {"/api/market-analysis/health"}, meterRegistry);
+        control.register("POST", "/api/market-analysis/compare");
+        AdmissionLane lane = control.lane("POST", "/api/market-analysis/compare");
+        assertTrue(lane.tryAcquire());
+        assertTrue(lane.tryAcquire());
+
+        // When: a third request waits, and a fourth finds the queue full
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(lane::tryAcquire);
+        while (lane.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        long start = System.nanoTime();
+        boolean fourth = lane.tryAcquire();
+        long rejectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lane.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Then
+        assertFalse(fourth);
+        assertTrue(rejectMillis < 1_000, "rejected after " + rejectMillis + " ms");
+        assertTrue(queued.get(2, TimeUnit.SECONDS));
+        assertEquals(2, lane.inflight());
+        assertEquals(1, meterRegistry.get("http.admission.rejected").tag("uri", "/api/market-analysis/compare")
+                .counter().count());
+        assertSame(lane, control.lane("POST", "/api/market-analysis/compare"));
+        assertTrue(control.isExempt("/api/market-analysis/health"));
+    }
+
+    @Test
+    void testLanesFollowMappedEndpoints() {
+        // Given
+        AdmissionControl control = new AdmissionControl(true, 20, 2, 200, 32, Duration.ofMillis(50), Duration.ofSeconds(1),
+                new String[] {"/actuator/**"}, meterRegistry);
+        control.register("GET", "/api/market-analysis/housing");
+        control.register("GET", "/api/market-analysis/housing/{id}");
+        control.register("GET", "/api/market-analysis/housing/stats");
+
+        // When
+        AdmissionLane stats = control.lane("GET", "/api/market-analysis/housing/stats");
+        AdmissionLane byId = control.lane("GET", "/api/market-analysis/housing/17");
+        AdmissionLane unmatched = control.lane("GET", "/wp-login.php");
+
+        // Then: the literal path wins over the template, and one template serves every id
+        assertNotSame(stats, byId);
+        assertSame(byId, control.lane("GET", "/api/market-analysis/housing/42"));
+        assertSame(byId, control.lane("HEAD", "/api/market-analysis/housing/42"));
+        assertSame(unmatched, control.lane("POST", "/api/market-analysis/housing/stats"));
+        assertSame(unmatched, control.lane("GET", "/api/market-analysis/housing/17/photos"));
+        assertEquals(1, meterRegistry.find("http.admission.limit").tag("uri", "/api/market-analysis/housing/{id}")
+                .gauges().size());
+        assertNull(meterRegistry.find("http.admission.limit").tag("uri", "/wp-login.php").gauge());
+        assertEquals(4, meterRegistry.find("http.admission.limit").gauges().size());
+    }
+
+    @Test
+    void testLimitFollowsLatency() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 2, 200, 1.5);
+        long fast = TimeUnit.MILLISECONDS.toNanos(20);
+
+        // When: fully used at steady latency, the limit probes upwards
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(fast, limit.limit());
+        }
+        int grown = limit.limit();
+        // When: latency jumps fourfold, it backs off
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(4 * fast, limit.limit());
+        }
+        int shrunk = limit.limit();
+
+        // Then
+        assertTrue(grown > 40, "grew to " + grown);
+        assertTrue(shrunk < grown / 2, "shrank to " + shrunk);
+        assertTrue(shrunk >= 2);
+
+        // Then: a lightly used endpoint gives no reason to grow
+        GradientLimit idle = new GradientLimit(20, 2, 200, 1.5);
+        for (int i = 0; i < 50; i++) {
+            idle.onSample(fast, 1);
+        }
+        assertEquals(20, idle.limit());
+    }
+}
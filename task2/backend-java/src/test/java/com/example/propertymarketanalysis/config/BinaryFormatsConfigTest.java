@@ -0,0 +1,83 @@
+package com.example.propertymarketanalysis.config;
+
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
+import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatsConfigTest {
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+    private MarketAnalysisResponse response;
+
+    @BeforeEach
+    void setUp() {
+        MarketAnalysisRequest request = new MarketAnalysisRequest();
+        request.setLocation("Boston");
+        request.setPropertyType("HOUSE");
+        request.setTimeframe("5Y");
+        MarketSeriesStore seriesStore = new MarketSeriesStore();
+        response = new MarketAnalysisServiceImpl(new HousingDataStore(), seriesStore, new MarketForecaster(seriesStore),
+                2, Duration.ofSeconds(5), null).getMarketAnalysis(request);
+    }
+
+    @Test
+    void testSmileRoundTripsAndIsSmallerThanJson() throws IOException {
+        // Given
+        byte[] json = write(new MappingJackson2HttpMessageConverter(builder().build()), MediaType.APPLICATION_JSON);
+
+        // When
+        AbstractJackson2HttpMessageConverter smile = config.smileHttpMessageConverter(builder());
+        byte[] encoded = write(smile, new MediaType("application", "x-jackson-smile"));
+
+        // Then: repeated row strings are back-referenced, so well under the JSON size
+        assertEquals(response, read(smile, encoded));
+        assertTrue(encoded.length < json.length * 0.6, encoded.length + " vs " + json.length + " bytes of JSON");
+    }
+
+    @Test
+    void testCborRoundTripsAndIsSmallerThanJson() throws IOException {
+        // Given
+        byte[] json = write(new MappingJackson2HttpMessageConverter(builder().build()), MediaType.APPLICATION_JSON);
+
+        // When
+        AbstractJackson2HttpMessageConverter cbor = config.cborHttpMessageConverter(builder());
+        byte[] encoded = write(cbor, MediaType.APPLICATION_CBOR);
+
+        // Then: binary numbers and dates, but every row's strings written out in full
+        assertEquals(response, read(cbor, encoded));
+        assertTrue(encoded.length < json.length * 0.8, encoded.length + " vs " + json.length + " bytes of JSON");
+        assertFalse(cbor.canWrite(MarketAnalysisResponse.class, MediaType.APPLICATION_JSON));
+    }
+
+    /** Configured like application.properties configures Spring Boot's builder. */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private byte[] write(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(response, mediaType, message);
+        return message.getBodyAsBytes();
+    }
+
+    private static Object read(AbstractJackson2HttpMessageConverter converter, byte[] body) throws IOException {
+        return converter.read(MarketAnalysisResponse.class, new MockHttpInputMessage(body));
+    }
+}
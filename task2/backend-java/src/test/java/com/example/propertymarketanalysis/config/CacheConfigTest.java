@@ -0,0 +1,149 @@
+package com.example.propertymarketanalysis.config;
+
+import com.example.propertymarketanalysis.market.MarketModelFittedEvent;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KeyGenerator keyGenerator = cacheConfig.marketCacheKeyGenerator(meterRegistry);
+    private CacheManager cacheManager;
+    private Counter counter;
+    private Method next;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.spec.currentTrend", "maximumSize=10,refreshAfterWrite=1h");
+        cacheManager = cacheConfig.cacheManager(environment);
+        counter = new Counter();
+        next = Counter.class.getMethod("next", String.class);
+    }
+
+    @Test
+    void testNamedCachesUseTheirOwnSpecs() {
+        // When
+        LoadingCache<?, ?> trend = nativeCache(CacheConfig.CURRENT_TREND_CACHE);
+        LoadingCache<?, ?> forecast = nativeCache(CacheConfig.MARKET_FORECAST_CACHE);
+
+        // Then
+        assertEquals(10, trend.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(trend.policy().expireAfterWrite().isEmpty());
+        assertTrue(trend.policy().isRecordingStats());
+        assertEquals(Duration.ofMinutes(15), forecast.policy().refreshAfterWrite().orElseThrow().getRefreshesAfter());
+        assertTrue(forecast.policy().isRecordingStats());
+        assertNull(cacheManager.getCache("unknown"));
+    }
+
+    @Test
+    void testRefreshReinvokesCachedMethod() {
+        // Given
+        Object key = keyGenerator.generate(counter, next, "Boston");
+        Cache cache = cacheManager.getCache(CacheConfig.CURRENT_TREND_CACHE);
+        assertEquals("Boston-1", cache.get(key, () -> counter.next("Boston")));
+
+        // When
+        Object refreshed = nativeCache(CacheConfig.CURRENT_TREND_CACHE).refresh(key).join();
+
+        // Then
+        assertEquals("Boston-2", refreshed);
+        assertEquals(2, counter.calls.get());
+        assertEquals(key, keyGenerator.generate(counter, next, "Boston"));
+        assertNotEquals(key, keyGenerator.generate(counter, next, "Chicago"));
+    }
+
+    @Test
+    void testKeyGenerationIsTimed() {
+        // When
+        keyGenerator.generate(counter, next, "Austin");
+        keyGenerator.generate(counter, next, "Austin");
+
+        // Then
+        Timer timer = meterRegistry.get("cache.key.generation").tag("generator", "marketCacheKeyGenerator").timer();
+        assertEquals(2, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void testConcurrentMissesComputeOnce() throws Exception {
+        // Given
+        Cache cache = cacheManager.getCache(CacheConfig.MARKET_ANALYSIS_CACHE);
+        Object key = keyGenerator.generate(counter, next, "Denver");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                return cache.get(key, () -> {
+                    Thread.sleep(50);
+                    return counter.next("Denver");
+                });
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, counter.calls.get());
+    }
+
+    @Test
+    void testFittedModelDropsProvisionalForecasts() throws Exception {
+        // Given
+        Method forecast = Forecasts.class.getMethod("forecast", String.class, String.class, String.class);
+        Forecasts forecasts = new Forecasts();
+        Cache cache = cacheManager.getCache(CacheConfig.MARKET_FORECAST_CACHE);
+        Object boston = keyGenerator.generate(forecasts, forecast, "Boston", "HOUSE", "6M");
+        Object bostonCondo = keyGenerator.generate(forecasts, forecast, "Boston", "CONDO", "6M");
+        cache.put(boston, "provisional");
+        cache.put(bostonCondo, "fitted");
+
+        // When
+        new MarketForecastCacheEvictor(cacheManager).onMarketModelFitted(new MarketModelFittedEvent("Boston", "HOUSE"));
+
+        // Then: the next read recomputes the evicted forecast, and other markets keep theirs
+        assertEquals("Boston HOUSE 6M", cache.get(boston).get());
+        assertEquals("fitted", cache.get(bostonCondo).get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private LoadingCache<Object, Object> nativeCache(String name) {
+        return (LoadingCache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+
+    public static class Forecasts {
+        public String forecast(String location, String propertyType, String period) {
+            return location + " " + propertyType + " " + period;
+        }
+    }
+
+    public static class Counter {
+        final AtomicInteger calls = new AtomicInteger();
+
+        public String next(String location) {
+            return location + "-" + calls.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.data.HousingDataset;
+import com.example.propertymarketanalysis.dto.Housing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingStreamWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HousingStreamWriter writer;
+    private HousingColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        writer = new HousingStreamWriter(objectMapper);
+        columns = new HousingDataStore("classpath:fixtures/housing-sample.csv").columns();
+    }
+
+    @Test
+    void testJsonArrayMatchesDtoSerialization() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        writer.writeJsonArray(columns, 0, columns.size(), out);
+
+        // Then
+        assertEquals(objectMapper.writeValueAsString(columns.asList()), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonWritesOneRowPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        writer.writeNdjson(columns, 2, 5, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        Housing first = objectMapper.readValue(lines[0], Housing.class);
+        assertEquals(3L, first.getId());
+        assertEquals(210000, first.getPrice());
+        assertEquals(5L, objectMapper.readValue(lines[2], Housing.class).getId());
+    }
+
+    @Test
+    void testCursorRoundTrip() {
+        // Given
+        HousingDataset dataset = new HousingDataset(columns, "a".repeat(64), 1, Instant.now());
+        HousingDataset truncated = new HousingDataset(HousingColumns.empty(), "a".repeat(64), 1, Instant.now());
+        HousingDataset reloaded = new HousingDataset(columns, "b".repeat(64), 2, Instant.now());
+
+        // When
+        String cursor = HousingCursor.encode(dataset, 7);
+
+        // Then
+        assertEquals(7, HousingCursor.decode(cursor, dataset));
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> HousingCursor.decode(cursor, truncated)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> HousingCursor.decode("not-a-cursor", dataset)).getStatusCode());
+        assertEquals(HttpStatus.GONE, assertThrows(ResponseStatusException.class,
+                () -> HousingCursor.decode(cursor, reloaded)).getStatusCode());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.config.BinaryFormatsConfig;
+import com.example.propertymarketanalysis.config.CacheConfig;
+import com.example.propertymarketanalysis.data.HousingDataStore;
+import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
+import com.example.propertymarketanalysis.service.MarketAnalysisServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class MarketAnalysisControllerTest {
+
+    private static final String STATS = "/api/market-analysis/housing/stats";
+    private static final String GROUPS = "/api/market-analysis/housing/groups?by=BEDROOMS";
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private MarketAnalysisServiceImpl service;
+    private ObjectMapper objectMapper;
+    private MappingJackson2SmileHttpMessageConverter smile;
+    private MappingJackson2CborHttpMessageConverter cbor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        HousingDataStore housingDataStore = new HousingDataStore("classpath:fixtures/housing-sample.csv", false, "", null,
+                new SimpleMeterRegistry());
+        MarketSeriesStore seriesStore = new MarketSeriesStore();
+        service = new MarketAnalysisServiceImpl(housingDataStore, seriesStore, new MarketForecaster(seriesStore),
+                2, Duration.ofSeconds(5), null);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MarketAnalysisController controller = new MarketAnalysisController(service, properties -> List.of(),
+                new HousingStreamWriter(objectMapper),
+                new ResponseBodyCache(new CacheConfig().cacheManager(new MockEnvironment()), DataSize.ofMegabytes(1)),
+                objectMapper, DataSize.ofBytes(256), Duration.ZERO);
+        // The converters Spring MVC registers, with JSON ahead of the binary formats as in the application
+        BinaryFormatsConfig binaryFormats = new BinaryFormatsConfig();
+        smile = binaryFormats.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        cbor = binaryFormats.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new ByteArrayHttpMessageConverter(), new StringHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper), smile, cbor)
+                .build();
+    }
+
+    @Test
+    void testHousingStatsRevalidatedByEtag() throws Exception {
+        // Given
+        MvcResult first = mockMvc.perform(get(STATS))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When / Then: an unchanged dataset is not sent again
+        mockMvc.perform(get(STATS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        // When / Then: after an append the old tag is stale, and the new body comes with a new tag
+        service.appendHousing(List.of(new Housing(99L, 2400, 4, 2.5, 2010, 6000, 4.5, 8.5, 615000)));
+        MvcResult changed = mockMvc.perform(get(STATS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        String newEtag = changed.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotEquals(etag, newEtag);
+        assertEquals(11, objectMapper.readTree(changed.getResponse().getContentAsByteArray()).get("count").asInt());
+        assertEquals(newEtag, mockMvc.perform(get(STATS)).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testHousingStatsGzippedWhenAccepted() throws Exception {
+        // Given
+        byte[] plain = mockMvc.perform(get(STATS)).andReturn().getResponse().getContentAsByteArray();
+
+        // When
+        MvcResult gzipped = mockMvc.perform(get(STATS).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+
+        // Then: the same JSON, under its own tag
+        assertArrayEquals(plain, gunzip(gzipped.getResponse().getContentAsByteArray()));
+        assertTrue(gzipped.getResponse().getHeader(HttpHeaders.ETAG).endsWith("-gzip\""));
+    }
+
+    @Test
+    void testBinaryFormatsNegotiatedByAccept() throws Exception {
+        // Given
+        byte[] json = mockMvc.perform(get(GROUPS))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // When
+        MvcResult asSmile = mockMvc.perform(get(GROUPS).accept(SMILE)).andReturn();
+        MvcResult asCbor = mockMvc.perform(get(GROUPS).accept(MediaType.APPLICATION_CBOR)).andReturn();
+
+        // Then: the same document in each encoding
+        assertEquals(SMILE.toString(), asSmile.getResponse().getContentType());
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, asCbor.getResponse().getContentType());
+        assertEquals(objectMapper.readTree(json), decode(smile, asSmile));
+        assertEquals(objectMapper.readTree(json), decode(cbor, asCbor));
+    }
+
+    @Test
+    void testHousingStatsServedInBinaryFormats() throws Exception {
+        // Given
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get(STATS))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray());
+
+        // When
+        MvcResult asSmile = mockMvc.perform(get(STATS).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+        MvcResult asCbor = mockMvc.perform(get(STATS).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn();
+        String smileEtag = asSmile.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then: each encoding has its own tag and revalidates by it
+        assertEquals(json, decode(smile, asSmile));
+        assertEquals(json, decode(cbor, asCbor));
+        assertNotEquals(smileEtag, asCbor.getResponse().getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get(STATS).accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, smileEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(STATS).header(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5"))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get(STATS).accept(MediaType.TEXT_HTML)).andExpect(status().isNotAcceptable());
+    }
+
+    private static JsonNode decode(AbstractJackson2HttpMessageConverter converter, MvcResult result) throws IOException {
+        return converter.getObjectMapper().readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.propertymarketanalysis.controller;
+
+import com.example.propertymarketanalysis.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheTest {
+
+    private static final String BODY = "[" + "{\"id\":1,\"price\":250000},".repeat(500) + "{\"id\":2}]";
+
+    private CacheManager cacheManager;
+    private final AtomicInteger writes = new AtomicInteger();
+    private final StreamingResponseBody body = out -> {
+        writes.incrementAndGet();
+        out.write(BODY.getBytes(StandardCharsets.UTF_8));
+    };
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(new MockEnvironment());
+    }
+
+    @Test
+    void testGzipStreamIsCachedPerKey() throws Exception {
+        // Given
+        ResponseBodyCache cache = new ResponseBodyCache(cacheManager, DataSize.ofMegabytes(1));
+
+        // When
+        byte[] first = write(cache.gzip("\"abc-json-gzip\"", body));
+        byte[] second = write(cache.gzip("\"abc-json-gzip\"", body));
+
+        // Then: the second response replays the compressed bytes without running the body
+        assertEquals(BODY, gunzip(first));
+        assertArrayEquals(first, second);
+        assertTrue(first.length < BODY.length() / 10);
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void testBodiesOverEntryLimitAreStreamedButNotCached() throws Exception {
+        // Given
+        ResponseBodyCache cache = new ResponseBodyCache(cacheManager, DataSize.ofBytes(16));
+
+        // When
+        byte[] first = write(cache.gzip("\"abc-json-gzip\"", body));
+        byte[] second = write(cache.gzip("\"abc-json-gzip\"", body));
+
+        // Then
+        assertEquals(BODY, gunzip(first));
+        assertEquals(BODY, gunzip(second));
+        assertEquals(2, writes.get());
+    }
+
+    private static byte[] write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
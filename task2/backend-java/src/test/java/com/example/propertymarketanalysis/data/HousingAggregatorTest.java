@@ -0,0 +1,77 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingAggregatorTest {
+
+    private HousingColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new HousingDataStore("classpath:fixtures/housing-sample.csv").columns();
+    }
+
+    @Test
+    void testAggregateMatchesNaiveComputation() {
+        // When
+        HousingAggregate aggregate = HousingAggregator.aggregate(columns);
+
+        // Then
+        assertEquals(10, aggregate.count());
+        for (HousingField field : HousingField.values()) {
+            double sum = 0;
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int row = 0; row < columns.size(); row++) {
+                double value = field.value(columns, row);
+                sum += value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            double mean = sum / columns.size();
+            double squaredDeviations = 0;
+            for (int row = 0; row < columns.size(); row++) {
+                double deviation = field.value(columns, row) - mean;
+                squaredDeviations += deviation * deviation;
+            }
+
+            assertEquals(sum, aggregate.sum(field), 1e-6, field.name());
+            assertEquals(min, aggregate.min(field), field.name());
+            assertEquals(max, aggregate.max(field), field.name());
+            assertEquals(mean, aggregate.mean(field), 1e-9, field.name());
+            assertEquals(squaredDeviations / columns.size(), aggregate.variance(field), 1e-6, field.name());
+        }
+    }
+
+    @Test
+    void testParallelAggregateMatchesSequential() {
+        // When: a threshold of 2 forces the fork-join path
+        HousingAggregate sequential = HousingAggregator.aggregate(columns, Integer.MAX_VALUE);
+        HousingAggregate parallel = HousingAggregator.aggregate(columns, 2);
+
+        // Then
+        assertEquals(sequential.count(), parallel.count());
+        for (HousingField field : HousingField.values()) {
+            assertEquals(sequential.sum(field), parallel.sum(field), 1e-6, field.name());
+            assertEquals(sequential.min(field), parallel.min(field), field.name());
+            assertEquals(sequential.max(field), parallel.max(field), field.name());
+            assertEquals(sequential.mean(field), parallel.mean(field), 1e-9, field.name());
+            assertEquals(sequential.variance(field), parallel.variance(field), 1e-6, field.name());
+        }
+    }
+
+    @Test
+    void testEmptyAggregate() {
+        // When
+        HousingAggregate aggregate = HousingAggregator.aggregate(HousingColumns.empty());
+
+        // Then
+        assertEquals(0, aggregate.count());
+        assertTrue(Double.isNaN(aggregate.min(HousingField.PRICE)));
+        assertEquals(0.0, aggregate.mean(HousingField.PRICE));
+        assertEquals(0.0, aggregate.variance(HousingField.PRICE));
+    }
+}
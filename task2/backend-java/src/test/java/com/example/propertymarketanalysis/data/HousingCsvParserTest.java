@@ -0,0 +1,106 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingCsvParserTest {
+
+    private static final String HEADER =
+            "id,square_footage,bedrooms,bathrooms,year_built,lot_size,distance_to_city_center,school_rating,price\n";
+
+    @Test
+    void testParsesFieldsWithWhitespaceAndCrlf() {
+        // Given
+        String csv = HEADER.replace("\n", "\r\n")
+                + "1, 1250 ,2,1.5,1985,5200,3.25,7.1,185000\r\n"
+                + "\r\n"
+                + "2,1850,3,2,1998,7500,-0.5,1e1,265000,extra\r\n"
+                + "3,1420,3\r\n";
+
+        // When
+        HousingColumns columns = HousingCsvParser.parse(csv.getBytes(StandardCharsets.UTF_8));
+
+        // Then: blank and short lines are skipped, extra fields ignored
+        assertEquals(2, columns.size());
+        assertEquals(1250, columns.squareFootage(0));
+        assertEquals(1.5, columns.bathrooms(0));
+        assertEquals(3.25, columns.distanceToCityCenter(0));
+        assertEquals(-0.5, columns.distanceToCityCenter(1));
+        assertEquals(10.0, columns.schoolRating(1));
+        assertEquals(265000, columns.price(1));
+    }
+
+    @Test
+    void testDecimalsMatchDoubleParseDouble() {
+        // Given
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder csv = new StringBuilder(HEADER);
+        double[] expected = new double[2000];
+        for (int i = 0; i < expected.length; i++) {
+            String text = switch (i % 4) {
+                case 0 -> Double.toString(random.nextDouble(0, 50));
+                case 1 -> String.format("%.3f", random.nextDouble(0, 1000));
+                case 2 -> "0.000" + random.nextInt(1, 99999);
+                default -> random.nextInt(0, 1000) + "." + random.nextLong(0, 1_000_000_000_000_000L);
+            };
+            expected[i] = Double.parseDouble(text);
+            csv.append(i).append(",1000,3,2,2000,5000,").append(text).append(",5,100000\n");
+        }
+
+        // When
+        HousingColumns columns = HousingCsvParser.parse(csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Then: bit-for-bit identical to the JDK parser
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], columns.distanceToCityCenter(i), "row " + i);
+        }
+    }
+
+    @Test
+    void testParallelChunksMatchSequentialParse(@TempDir Path dir) throws Exception {
+        // Given
+        SplittableRandom random = new SplittableRandom(11);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 5000; i++) {
+            csv.append(i).append(',').append(random.nextInt(800, 4000)).append(',')
+                    .append(random.nextInt(1, 6)).append(',').append(random.nextInt(2, 8) / 2.0).append(',')
+                    .append(random.nextInt(1950, 2024)).append(',').append(random.nextInt(2000, 15000)).append(',')
+                    .append(Math.round(random.nextDouble(0.5, 30) * 10) / 10.0).append(',')
+                    .append(Math.round(random.nextDouble(3, 10) * 10) / 10.0).append(',')
+                    .append(random.nextInt(100_000, 900_000)).append('\n');
+        }
+        Path file = dir.resolve("housing.csv");
+        Files.writeString(file, csv);
+
+        // When: a one-byte threshold forces the chunked, parallel path
+        HousingColumns sequential = HousingCsvParser.parse(csv.toString().getBytes(StandardCharsets.UTF_8));
+        HousingColumns parallel = HousingCsvParser.parse(file, 1);
+
+        // Then
+        assertEquals(5000, parallel.size());
+        for (int row = 0; row < sequential.size(); row++) {
+            assertEquals(sequential.id(row), parallel.id(row));
+            for (HousingField field : HousingField.values()) {
+                assertEquals(field.value(sequential, row), field.value(parallel, row), field + " row " + row);
+            }
+        }
+    }
+
+    @Test
+    void testMalformedNumberThrows() {
+        // Given
+        String csv = HEADER + "1,12x0,2,1,1985,5200,3.2,7.1,185000\n";
+
+        // When & Then
+        NumberFormatException ex = assertThrows(NumberFormatException.class,
+                () -> HousingCsvParser.parse(csv.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(ex.getMessage().contains("12x0"));
+    }
+}
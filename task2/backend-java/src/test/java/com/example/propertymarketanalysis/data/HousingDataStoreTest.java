@@ -0,0 +1,262 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.Housing;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingDataStoreTest {
+
+    private HousingDataStore housingDataStore;
+
+    @BeforeEach
+    void setUp() {
+        housingDataStore = new HousingDataStore("classpath:fixtures/housing-sample.csv");
+    }
+
+    @Test
+    void testColumnsLoadedFromCsv() {
+        // When
+        HousingColumns columns = housingDataStore.columns();
+
+        // Then
+        assertEquals(10, columns.size());
+        assertEquals(1L, columns.id(0));
+        assertEquals(1250, columns.squareFootage(0));
+        assertEquals(2.5, columns.bathrooms(3));
+        assertEquals(410000, columns.price(6));
+    }
+
+    @Test
+    void testColumnsLoadedOnce() {
+        // When & Then: the same snapshot is handed out on every call
+        assertSame(housingDataStore.dataset(), housingDataStore.dataset());
+        assertSame(housingDataStore.columns(), housingDataStore.columns());
+        assertEquals(1, housingDataStore.dataset().version());
+        assertEquals(64, housingDataStore.dataset().fingerprint().length());
+    }
+
+    @Test
+    void testLoadIsMeasured() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HousingDataStore store = new HousingDataStore("classpath:fixtures/housing-sample.csv", false, "", null, meterRegistry);
+        assertTrue(Double.isNaN(meterRegistry.get("housing.data.rows").gauge().value()));
+
+        // When
+        store.dataset();
+
+        // Then
+        Timer load = meterRegistry.get("housing.data.load").tag("source", "csv").timer();
+        assertEquals(1, load.count());
+        assertEquals(10, meterRegistry.get("housing.data.rows").gauge().value());
+        assertEquals(1, meterRegistry.get("housing.data.version").gauge().value());
+        // Stores built without a registry keep their gauges to themselves
+        housingDataStore.dataset();
+        assertNull(Metrics.globalRegistry.find("housing.data.rows").gauge());
+    }
+
+    @Test
+    void testAsListMaterializesRows() {
+        // When
+        List<Housing> housing = housingDataStore.columns().asList();
+
+        // Then
+        assertEquals(10, housing.size());
+        Housing fourth = housing.get(3);
+        assertEquals(4L, fourth.getId());
+        assertEquals(4, fourth.getBedrooms());
+        assertEquals(7.3, fourth.getDistanceToCityCenter());
+        assertEquals(345000, fourth.getPrice());
+        assertThrows(UnsupportedOperationException.class, () -> housing.add(new Housing()));
+    }
+
+    @Test
+    void testMissingCsv_throwsRuntimeException() {
+        // Given
+        HousingDataStore missing = new HousingDataStore("classpath:fixtures/does-not-exist.csv");
+
+        // When & Then
+        RuntimeException ex = assertThrows(RuntimeException.class, missing::columns);
+        assertTrue(ex.getMessage().toLowerCase().contains("housing"));
+    }
+
+    @Test
+    void testReloadBumpsVersionOnlyWhenContentChanges(@TempDir Path dir) throws Exception {
+        // Given
+        Path csv = dir.resolve("housing.csv");
+        Files.copy(new ClassPathResource("fixtures/housing-sample.csv").getInputStream(), csv);
+        List<Object> events = new ArrayList<>();
+        HousingDataStore store = new HousingDataStore(csv.toUri().toString(), events::add);
+        HousingDataset first = store.dataset();
+
+        // When: same content
+        HousingDataset unchanged = store.reload();
+
+        // Then
+        assertSame(first, unchanged);
+        assertTrue(events.isEmpty());
+
+        // When: a row is appended
+        Files.writeString(csv, "11,1500,3,2,2000,6000,4.0,7.5,250000\n", StandardOpenOption.APPEND);
+        HousingDataset changed = store.reloadIfModified();
+
+        // Then
+        assertEquals(2, changed.version());
+        assertNotEquals(first.fingerprint(), changed.fingerprint());
+        assertEquals(11, store.columns().size());
+        assertEquals(1, events.size());
+        HousingDatasetChangedEvent event = (HousingDatasetChangedEvent) events.get(0);
+        assertSame(first, event.previous());
+        assertSame(changed, event.current());
+    }
+
+    @Test
+    void testRestartLoadsFromSnapshotUntilCsvChanges(@TempDir Path dir) throws Exception {
+        // Given: a first load parses the CSV and writes the snapshot
+        Path csv = dir.resolve("housing.csv");
+        Path snapshot = dir.resolve("snapshots/housing.snapshot");
+        Files.copy(new ClassPathResource("fixtures/housing-sample.csv").getInputStream(), csv);
+        HousingDataset first = store(csv, snapshot, new SimpleMeterRegistry()).dataset();
+        assertTrue(Files.exists(snapshot));
+
+        // When: the CSV is touched but its content is unchanged
+        Files.setLastModifiedTime(csv, FileTime.from(Instant.parse("2030-01-01T00:00:00Z")));
+        SimpleMeterRegistry restartRegistry = new SimpleMeterRegistry();
+        HousingDataset restarted = store(csv, snapshot, restartRegistry).dataset();
+
+        // Then: it is served from the snapshot
+        assertEquals(first.fingerprint(), restarted.fingerprint());
+        assertEquals(10, restarted.columns().size());
+        assertEquals(410000, restarted.columns().price(6));
+        assertEquals(1, restartRegistry.get("housing.data.load").tag("source", "snapshot").timer().count());
+
+        // When: a price is edited in place, keeping the CSV's length and modification time
+        FileTime mtime = Files.getLastModifiedTime(csv);
+        Files.writeString(csv, Files.readString(csv).replace("410000", "420000"));
+        Files.setLastModifiedTime(csv, mtime);
+        SimpleMeterRegistry editedRegistry = new SimpleMeterRegistry();
+        HousingDataset edited = store(csv, snapshot, editedRegistry).dataset();
+
+        // Then: the stale snapshot is ignored
+        assertEquals(420000, edited.columns().price(6));
+        assertNotEquals(first.fingerprint(), edited.fingerprint());
+        assertEquals(1, editedRegistry.get("housing.data.load").tag("source", "csv").timer().count());
+    }
+
+    @Test
+    void testDefaultSnapshotIsKeptOutOfTheSourceDirectory(@TempDir Path dir) {
+        // Given
+        Path csv = dir.resolve("housing.csv");
+        HousingDataStore store = new HousingDataStore(csv.toUri().toString(), true, "", null);
+
+        // When
+        Path snapshot = store.snapshotPath();
+
+        // Then
+        assertTrue(snapshot.startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath()));
+        assertFalse(snapshot.startsWith(dir));
+        assertNotEquals(new HousingDataStore("classpath:fixtures/housing-sample.csv", true, "", null).snapshotPath(),
+                snapshot);
+    }
+
+    @Test
+    void testAppendUpdatesAggregateFromBatchOnly() {
+        // Given
+        List<Object> events = new ArrayList<>();
+        HousingDataStore store = new HousingDataStore("classpath:fixtures/housing-sample.csv", events::add);
+        HousingDataset first = store.dataset();
+
+        // When
+        HousingDataset second = store.append(List.of(
+                new Housing(11L, 1500, 3, 2.0, 2000, 6000, 4.0, 7.5, 250000),
+                new Housing(12L, 3100, 5, 3.5, 2018, 9000, 12.5, 9.0, 910000)));
+        HousingDataset third = store.append(List.of(new Housing(13L, 900, 1, 1.0, 1965, 2500, 1.2, 6.0, 180000)));
+
+        // Then: the running aggregate matches a full recomputation
+        assertEquals(13, third.columns().size());
+        assertEquals(10, first.columns().size());
+        assertEquals(3, third.version());
+        HousingAggregate expected = HousingAggregator.aggregate(third.columns());
+        for (HousingField field : HousingField.values()) {
+            assertEquals(expected.mean(field), third.aggregate().mean(field), 1e-9);
+            assertEquals(expected.variance(field), third.aggregate().variance(field), 1e-6);
+            assertEquals(expected.max(field), third.aggregate().max(field));
+        }
+        assertEquals(10, first.aggregate().count());
+        assertEquals(910000, third.columns().price(11));
+
+        // Then: the second append wrote into the spare capacity left by the first
+        assertSame(second.columns().idColumn(), third.columns().idColumn());
+        assertEquals(2, events.size());
+        assertSame(third, store.dataset());
+    }
+
+    @Test
+    void testNeighborsRebuiltInBackgroundAfterAppend() {
+        // Given: a builder that runs only when the test says so
+        List<Runnable> builds = new ArrayList<>();
+        HousingDataStore store = new HousingDataStore("classpath:fixtures/housing-sample.csv", false, "", null,
+                new SimpleMeterRegistry(), builds::add);
+        HousingNeighbors first = store.neighbors();
+
+        // When: two appends land before the rebuild runs
+        store.append(List.of(new Housing(11L, 1500, 3, 2.0, 2000, 6000, 4.0, 7.5, 250000)));
+        HousingDataset appended = store.append(List.of(new Housing(12L, 900, 1, 1.0, 1965, 2500, 1.2, 6.0, 180000)));
+
+        // Then: the previous tree keeps answering, and one rebuild is pending
+        assertSame(first, store.neighbors());
+        assertEquals(1, builds.size());
+
+        // When
+        builds.remove(0).run();
+
+        // Then: the rebuilt tree covers both appends
+        assertSame(appended.columns(), store.neighbors().columns());
+        assertTrue(builds.isEmpty());
+    }
+
+    @Test
+    void testAppendChainsFingerprint() {
+        // Given
+        List<Housing> batch = List.of(new Housing(11L, 1500, 3, 2.0, 2000, 6000, 4.0, 7.5, 250000));
+        HousingDataStore one = new HousingDataStore("classpath:fixtures/housing-sample.csv");
+        HousingDataStore other = new HousingDataStore("classpath:fixtures/housing-sample.csv");
+
+        // When
+        HousingDataset appended = one.append(batch);
+
+        // Then
+        assertEquals(appended.fingerprint(), other.append(batch).fingerprint());
+        assertNotEquals(other.dataset().fingerprint(), other.append(batch).fingerprint());
+        assertNotEquals(housingDataStore.dataset().fingerprint(), appended.fingerprint());
+    }
+
+    @Test
+    void testAppendRejectsIncompleteRecord() {
+        // Given
+        Housing incomplete = new Housing(11L, 1500, 3, 2.0, 2000, 6000, 4.0, null, 250000);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> housingDataStore.append(List.of(incomplete)));
+        assertEquals(10, housingDataStore.columns().size());
+    }
+
+    private static HousingDataStore store(Path csv, Path snapshot, SimpleMeterRegistry meterRegistry) {
+        return new HousingDataStore(csv.toUri().toString(), true, snapshot.toString(), null, meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingDataWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private HousingDataWatcher watcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void testFileChangeIsReloadedInBackground() throws Exception {
+        // Given
+        Path csv = dir.resolve("housing.csv");
+        Files.copy(new ClassPathResource("fixtures/housing-sample.csv").getInputStream(), csv);
+        List<Object> events = new CopyOnWriteArrayList<>();
+        HousingDataStore store = new HousingDataStore(csv.toUri().toString(), events::add);
+        HousingDataset original = store.dataset();
+        watcher = new HousingDataWatcher(store, true, Duration.ofMillis(100));
+        watcher.start();
+        assertTrue(watcher.isWatching());
+
+        // When: the file is replaced atomically with one more row
+        Path staged = dir.resolve("housing.csv.tmp");
+        Files.copy(csv, staged);
+        Files.writeString(staged, "11,1500,3,2,2000,6000,4.0,7.5,250000\n", StandardOpenOption.APPEND);
+        Files.move(staged, csv, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (store.dataset() == original && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(11, store.columns().size());
+        assertEquals(2, store.dataset().version());
+        assertEquals(1, events.size());
+        // The previous snapshot is untouched for readers still holding it
+        assertEquals(10, original.columns().size());
+    }
+
+    @Test
+    void testClasspathSourceIsNotWatched() throws Exception {
+        // Given: the test fixture resolves to a file under target/test-classes
+        HousingDataStore store = new HousingDataStore("classpath:fixtures/housing-sample.csv");
+        assertNotNull(store.sourcePath());
+
+        // When
+        watcher = new HousingDataWatcher(store, true, Duration.ofMillis(100));
+        watcher.start();
+
+        // Then: classpath resources belong to the build, so no watcher thread is started
+        assertNull(store.watchPath());
+        assertFalse(watcher.isWatching());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingGrouperTest {
+
+    private HousingColumns columns;
+    private HousingAggregate aggregate;
+
+    @BeforeEach
+    void setUp() {
+        columns = new HousingDataStore("classpath:fixtures/housing-sample.csv").columns();
+        aggregate = HousingAggregator.aggregate(columns);
+    }
+
+    @Test
+    void testGroupsMatchNaiveGrouping() {
+        for (HousingDimension dimension : HousingDimension.values()) {
+            // Given
+            Map<Integer, double[]> expected = new HashMap<>(); // key -> {count, price sum}
+            for (int row = 0; row < columns.size(); row++) {
+                double[] group = expected.computeIfAbsent(dimension.key(columns, row), key -> new double[2]);
+                group[0]++;
+                group[1] += columns.price(row);
+            }
+
+            // When
+            NavigableMap<Integer, HousingAggregate> groups = HousingGrouper.group(columns, aggregate, dimension);
+
+            // Then
+            assertEquals(expected.keySet(), groups.keySet(), dimension.name());
+            long total = 0;
+            for (Map.Entry<Integer, HousingAggregate> entry : groups.entrySet()) {
+                double[] group = expected.get(entry.getKey());
+                HousingAggregate actual = entry.getValue();
+                assertEquals((long) group[0], actual.count());
+                assertEquals(group[1], actual.sum(HousingField.PRICE), 1e-6);
+                assertTrue(actual.min(dimension.field()) >= dimension.lowerBound(entry.getKey()));
+                assertTrue(actual.max(dimension.field()) < dimension.upperBound(entry.getKey()));
+                assertNull(actual.sketch(HousingMeasure.PRICE));
+                total += actual.count();
+            }
+            assertEquals(columns.size(), total);
+        }
+    }
+
+    @Test
+    void testParallelGroupsMatchSequential() {
+        // When: a threshold of 2 forces the fork-join path
+        NavigableMap<Integer, HousingAggregate> sequential =
+                HousingGrouper.group(columns, aggregate, HousingDimension.BEDROOMS, Integer.MAX_VALUE);
+        NavigableMap<Integer, HousingAggregate> parallel =
+                HousingGrouper.group(columns, aggregate, HousingDimension.BEDROOMS, 2);
+
+        // Then
+        assertEquals(sequential.keySet(), parallel.keySet());
+        sequential.forEach((key, group) -> {
+            for (HousingField field : HousingField.values()) {
+                assertEquals(group.mean(field), parallel.get(key).mean(field), 1e-9, field.name());
+                assertEquals(group.variance(field), parallel.get(key).variance(field), 1e-6, field.name());
+            }
+        });
+    }
+
+    @Test
+    void testKeysOutsideDenseRangeStillGrouped() {
+        // Given: an aggregate whose range does not cover the rows, as with outliers past the dense limit
+        HousingAggregate narrow = new HousingAggregate().accumulate(columns, 0, 1);
+
+        // When
+        NavigableMap<Integer, HousingAggregate> groups =
+                HousingGrouper.group(columns, narrow, HousingDimension.YEAR_BUILT_DECADE, 2);
+
+        // Then
+        assertEquals(HousingGrouper.group(columns, aggregate, HousingDimension.YEAR_BUILT_DECADE).keySet(),
+                groups.keySet());
+        assertEquals(columns.size(), groups.values().stream().mapToLong(HousingAggregate::count).sum());
+        assertEquals("1990s", HousingDimension.YEAR_BUILT_DECADE.label(199));
+        assertEquals("2-4", HousingDimension.DISTANCE_BAND.label(1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.HousingQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingIndexTest {
+
+    private HousingColumns columns;
+    private HousingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        HousingColumns.Builder builder = HousingColumns.builder(5000);
+        for (int i = 0; i < 5000; i++) {
+            builder.add(i + 1,
+                    random.nextInt(800, 4000),
+                    random.nextInt(1, 6),
+                    random.nextInt(2, 8) / 2.0,
+                    random.nextInt(1950, 2024),
+                    random.nextInt(2000, 15000),
+                    Math.round(random.nextDouble(0.5, 30.0) * 10) / 10.0,
+                    Math.round(random.nextDouble(3.0, 10.0) * 10) / 10.0,
+                    random.nextInt(100_000, 900_000));
+        }
+        columns = builder.build();
+        index = HousingIndex.build(columns);
+    }
+
+    @Test
+    void testEmptyQuerySelectsEveryRow() {
+        // When
+        int[] rows = index.select(new HousingQuery());
+
+        // Then
+        assertArrayEquals(IntStream.range(0, columns.size()).toArray(), rows);
+    }
+
+    @Test
+    void testRangeAndEqualityPredicatesMatchFullScan() {
+        // Given
+        HousingQuery query = new HousingQuery();
+        query.setMinPrice(250_000.0);
+        query.setMaxPrice(600_000.0);
+        query.setMinSchoolRating(7.5);
+        query.setBedrooms(3);
+
+        // When & Then
+        assertArrayEquals(scan(query), index.select(query));
+    }
+
+    @Test
+    void testHighlySelectivePredicatesMatchFullScan() {
+        // Given: a narrow year range forces the probe path for the wider predicates
+        HousingQuery query = new HousingQuery();
+        query.setMinYearBuilt(2000.0);
+        query.setMaxYearBuilt(2000.0);
+        query.setMaxDistanceToCityCenter(20.0);
+        query.setMinSquareFootage(1000.0);
+        query.setBathrooms(2.0);
+
+        // When & Then
+        assertArrayEquals(scan(query), index.select(query));
+    }
+
+    @Test
+    void testUnknownEqualityValueSelectsNothing() {
+        // Given
+        HousingQuery query = new HousingQuery();
+        query.setBedrooms(12);
+        query.setMinPrice(0.0);
+
+        // When & Then
+        assertEquals(0, index.select(query).length);
+    }
+
+    private int[] scan(HousingQuery query) {
+        return IntStream.range(0, columns.size())
+                .filter(row -> within(columns.price(row), query.getMinPrice(), query.getMaxPrice()))
+                .filter(row -> within(columns.squareFootage(row), query.getMinSquareFootage(), query.getMaxSquareFootage()))
+                .filter(row -> within(columns.yearBuilt(row), query.getMinYearBuilt(), query.getMaxYearBuilt()))
+                .filter(row -> within(columns.distanceToCityCenter(row),
+                        query.getMinDistanceToCityCenter(), query.getMaxDistanceToCityCenter()))
+                .filter(row -> within(columns.schoolRating(row), query.getMinSchoolRating(), query.getMaxSchoolRating()))
+                .filter(row -> query.getBedrooms() == null || columns.bedrooms(row) == query.getBedrooms())
+                .filter(row -> query.getBathrooms() == null || columns.bathrooms(row) == query.getBathrooms())
+                .toArray();
+    }
+
+    private static boolean within(double value, Double min, Double max) {
+        return (min == null || value >= min) && (max == null || value <= max);
+    }
+}
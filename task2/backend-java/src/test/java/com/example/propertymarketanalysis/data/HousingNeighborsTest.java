@@ -0,0 +1,110 @@
+package com.example.propertymarketanalysis.data;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingNeighborsTest {
+
+    private static final HousingField[] FEATURES = {
+            HousingField.SQUARE_FOOTAGE, HousingField.BEDROOMS, HousingField.BATHROOMS, HousingField.YEAR_BUILT,
+            HousingField.LOT_SIZE, HousingField.DISTANCE_TO_CITY_CENTER, HousingField.SCHOOL_RATING};
+
+    private HousingColumns columns;
+    private HousingNeighbors neighbors;
+
+    @BeforeEach
+    void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        HousingColumns.Builder builder = HousingColumns.builder(20_000);
+        for (int i = 0; i < 20_000; i++) {
+            builder.add(i + 1,
+                    random.nextInt(800, 4000),
+                    random.nextInt(1, 6),
+                    random.nextInt(2, 8) / 2.0,
+                    random.nextInt(1950, 2024),
+                    random.nextInt(2000, 15000),
+                    Math.round(random.nextDouble(0.5, 30.0) * 10) / 10.0,
+                    Math.round(random.nextDouble(3.0, 10.0) * 10) / 10.0,
+                    random.nextInt(100_000, 900_000));
+        }
+        columns = builder.build();
+        neighbors = HousingNeighbors.build(columns);
+    }
+
+    @Test
+    void testNearestMatchesFullScan() {
+        // Given
+        PropertyFeatures subject = new PropertyFeatures(2100.0, 3, 2.0, 1995, 7500, 8.5, 7.2);
+
+        // When
+        List<HousingNeighbors.Neighbor> nearest = neighbors.nearest(subject, 25);
+
+        // Then: same distances as ranking every row, nearest first
+        double[] expected = scan(subject);
+        assertEquals(25, nearest.size());
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(expected[i], nearest.get(i).distance(), 1e-4);
+            assertEquals(distance(subject, nearest.get(i).row()), nearest.get(i).distance(), 1e-4);
+        }
+    }
+
+    @Test
+    void testMissingFeaturesAreIgnored() {
+        // Given: only size and bedrooms
+        PropertyFeatures subject = new PropertyFeatures(3200.0, 4, null, null, null, null, null);
+
+        // When
+        List<HousingNeighbors.Neighbor> nearest = neighbors.nearest(subject, 5);
+
+        // Then
+        double[] expected = scan(subject);
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(expected[i], nearest.get(i).distance(), 1e-4);
+            assertEquals(4, columns.bedrooms(nearest.get(i).row()));
+        }
+        assertEquals(columns.size(), neighbors.nearest(subject, columns.size() + 10).size());
+        assertThrows(IllegalArgumentException.class, () -> neighbors.nearest(new PropertyFeatures(), 5));
+    }
+
+    private double[] scan(PropertyFeatures subject) {
+        double[] distances = new double[columns.size()];
+        for (int row = 0; row < columns.size(); row++) {
+            distances[row] = distance(subject, row);
+        }
+        Arrays.sort(distances);
+        return distances;
+    }
+
+    private double distance(PropertyFeatures subject, int row) {
+        Number[] values = {subject.getSquareFootage(), subject.getBedrooms(), subject.getBathrooms(),
+                subject.getYearBuilt(), subject.getLotSize(), subject.getDistanceToCityCenter(),
+                subject.getSchoolRating()};
+        double sum = 0;
+        for (int d = 0; d < FEATURES.length; d++) {
+            if (values[d] != null) {
+                double diff = (values[d].doubleValue() - FEATURES[d].value(columns, row)) / standardDeviation(FEATURES[d]);
+                sum += diff * diff;
+            }
+        }
+        return Math.sqrt(sum);
+    }
+
+    private double standardDeviation(HousingField field) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            double value = field.value(columns, row);
+            sum += value;
+            sumOfSquares += value * value;
+        }
+        double mean = sum / columns.size();
+        return Math.sqrt(sumOfSquares / columns.size() - mean * mean);
+    }
+}
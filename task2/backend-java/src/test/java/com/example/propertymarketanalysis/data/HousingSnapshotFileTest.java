@@ -0,0 +1,84 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HousingSnapshotFileTest {
+
+    private static final String FINGERPRINT = "00112233445566778899aabbccddeeff00112233445566778899aabbccddeeff";
+
+    @TempDir
+    Path dir;
+
+    private HousingColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new HousingDataStore("classpath:fixtures/housing-sample.csv", false, "", null).columns();
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        // Given
+        Path snapshot = dir.resolve("housing.snapshot");
+        HousingSnapshotFile.write(snapshot, columns, FINGERPRINT, 1234L);
+
+        // When
+        Optional<HousingSnapshotFile.Snapshot> read = HousingSnapshotFile.read(snapshot, 1234L, FINGERPRINT);
+
+        // Then
+        assertTrue(read.isPresent());
+        assertEquals(FINGERPRINT, read.get().fingerprint());
+        HousingColumns loaded = read.get().columns();
+        assertEquals(columns.size(), loaded.size());
+        for (int row = 0; row < columns.size(); row++) {
+            for (HousingField field : HousingField.values()) {
+                assertEquals(field.value(columns, row), field.value(loaded, row));
+            }
+            assertEquals(columns.id(row), loaded.id(row));
+        }
+        assertFalse(Files.exists(dir.resolve("housing.snapshot.tmp")));
+    }
+
+    @Test
+    void testStaleOrMissingSnapshotReadsAsEmpty() throws Exception {
+        // Given
+        Path snapshot = dir.resolve("housing.snapshot");
+        HousingSnapshotFile.write(snapshot, columns, FINGERPRINT, 1234L);
+
+        // When & Then
+        assertTrue(HousingSnapshotFile.read(snapshot, 1235L, FINGERPRINT).isEmpty());
+        assertTrue(HousingSnapshotFile.read(snapshot, 1234L, FINGERPRINT.replace('0', 'f')).isEmpty());
+        assertTrue(HousingSnapshotFile.read(dir.resolve("missing.snapshot"), 1234L, FINGERPRINT).isEmpty());
+    }
+
+    @Test
+    void testCorruptSnapshotReadsAsEmpty() throws Exception {
+        // Given
+        Path snapshot = dir.resolve("housing.snapshot");
+        HousingSnapshotFile.write(snapshot, columns, FINGERPRINT, 1234L);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        // When: a bit flips in the column data
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length - 12] ^= 0x01;
+        Files.write(snapshot, flipped);
+
+        // Then
+        assertTrue(HousingSnapshotFile.read(snapshot, 1234L, FINGERPRINT).isEmpty());
+
+        // When: the file is truncated
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length / 2));
+
+        // Then
+        assertTrue(HousingSnapshotFile.read(snapshot, 1234L, FINGERPRINT).isEmpty());
+    }
+}
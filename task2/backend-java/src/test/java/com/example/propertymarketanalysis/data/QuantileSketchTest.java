@@ -0,0 +1,91 @@
+package com.example.propertymarketanalysis.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.01, 0.10, 0.25, 0.50, 0.75, 0.90, 0.99};
+
+    @Test
+    void testQuantilesWithinOnePercentOfExact() {
+        // Given: log-normally distributed prices, like a real housing market
+        double[] prices = logNormalPrices(100_000, 7);
+        QuantileSketch sketch = new QuantileSketch();
+        for (double price : prices) {
+            sketch.add(price);
+        }
+
+        // When
+        double[] sorted = prices.clone();
+        Arrays.sort(sorted);
+
+        // Then
+        assertEquals(prices.length, sketch.count());
+        for (double q : QUANTILES) {
+            double exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            assertEquals(exact, sketch.quantile(q), exact * 0.01, "q=" + q);
+        }
+        assertEquals(sorted[0], sketch.quantile(0));
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1));
+    }
+
+    @Test
+    void testMergedPartitionsMatchSinglePass() {
+        // Given
+        double[] prices = logNormalPrices(50_000, 11);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < prices.length; i++) {
+            whole.add(prices[i]);
+            (i % 3 == 0 ? left : right).add(prices[i]);
+        }
+
+        // When
+        QuantileSketch merged = left.copy().merge(right);
+
+        // Then: merging is exact, not just approximately equal
+        assertEquals(whole.count(), merged.count());
+        for (double q : QUANTILES) {
+            assertEquals(whole.quantile(q), merged.quantile(q));
+        }
+        assertEquals(prices.length / 3 + 1, left.count());
+    }
+
+    @Test
+    void testHistogramAndEdgeCases() {
+        // Given
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i * 1000);
+        }
+        sketch.add(0);
+        sketch.add(Double.NaN);
+
+        // When
+        long[] histogram = sketch.histogram(0, 100_000, 10);
+
+        // Then
+        assertEquals(101, sketch.count());
+        assertEquals(101, Arrays.stream(histogram).sum());
+        assertEquals(0.0, sketch.quantile(0));
+        assertEquals(50_000, sketch.quantile(0.5), 500);
+        assertEquals(10, histogram[4], 1);
+    }
+
+    private static double[] logNormalPrices(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] prices = new double[n];
+        for (int i = 0; i < n; i++) {
+            double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+            prices[i] = Math.exp(12.6 + 0.5 * gaussian);
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.propertymarketanalysis.market;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoltWintersModelTest {
+
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 5);
+
+    @Test
+    void testSeasonalTrendIsForecastWithinInterval() {
+        // Given: five years of a rising price with a summer peak and a little noise
+        double[] prices = new double[72];
+        SplittableRandom random = new SplittableRandom(7);
+        YearMonth first = LAST_MONTH.minusMonths(prices.length - 12 - 1L);
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = truth(first.plusMonths(i), i) + random.nextGaussian() * 2_000;
+        }
+        double[] history = Arrays.copyOf(prices, prices.length - 12);
+
+        // When
+        HoltWintersModel model = HoltWintersModel.fit(history, LAST_MONTH);
+
+        // Then: the season is picked up and each held-out month falls in its interval
+        assertTrue(model.seasonal());
+        for (int h = 1; h <= 12; h++) {
+            YearMonth month = LAST_MONTH.plusMonths(h);
+            HoltWintersModel.Forecast forecast = model.forecast(month);
+            double actual = truth(month, history.length - 1 + h);
+            assertTrue(forecast.lower() <= actual && actual <= forecast.upper(), "month " + month);
+            assertEquals(actual, forecast.price(), actual * 0.02, "month " + month);
+        }
+        assertTrue(model.forecast(LAST_MONTH.plusMonths(12)).upper() - model.forecast(LAST_MONTH.plusMonths(12)).lower()
+                > model.forecast(LAST_MONTH.plusMonths(1)).upper() - model.forecast(LAST_MONTH.plusMonths(1)).lower());
+    }
+
+    @Test
+    void testUpdateFoldsInNewMonths() {
+        // Given
+        double[] prices = new double[36];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = 400_000 + 1_000 * i;
+        }
+        HoltWintersModel model = HoltWintersModel.fit(prices, LAST_MONTH);
+
+        // When
+        HoltWintersModel updated = model.update(new double[] {436_000, 437_000});
+
+        // Then
+        assertEquals(LAST_MONTH.plusMonths(2), updated.lastMonth());
+        assertEquals(2, updated.updatesSinceFit());
+        assertEquals(LAST_MONTH, model.lastMonth());
+        assertEquals(438_000, updated.forecast(LAST_MONTH.plusMonths(3)).price(), 1_000);
+        assertThrows(IllegalArgumentException.class, () -> updated.forecast(LAST_MONTH));
+        assertThrows(IllegalArgumentException.class, () -> HoltWintersModel.fit(new double[] {1, 2}, LAST_MONTH));
+    }
+
+    private static double truth(YearMonth month, int index) {
+        return 500_000 + 1_500 * index + 25_000 * Math.sin((month.getMonthValue() - 4) * Math.PI / 6);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.propertymarketanalysis.market;
+
+import com.example.propertymarketanalysis.dto.MarketData;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketForecasterTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-05-17T10:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final MarketForecaster forecaster =
+            new MarketForecaster(new MarketSeriesStore(clock), Duration.ofHours(1), meterRegistry, events::add, clock);
+
+    @AfterEach
+    void tearDown() {
+        forecaster.stop();
+    }
+
+    @Test
+    void testFirstRequestAnsweredProvisionallyAndFittedInBackground() {
+        // When
+        HoltWintersModel provisional = forecaster.model("Boston", "HOUSE");
+        HoltWintersModel.Forecast forecast = forecaster.forecast("Boston", "HOUSE", 12);
+
+        // Then: the request did not run the parameter search
+        assertTrue(provisional.isProvisional());
+        assertSame(provisional, forecaster.model("Boston", "HOUSE"));
+        assertEquals(YearMonth.of(2025, 5), provisional.lastMonth());
+        assertEquals(provisional.forecast(YearMonth.of(2026, 5)), forecast);
+        assertEquals(0, meterRegistry.get("market.forecast.refit").tag("mode", "full").timer().count());
+
+        // When: the background pass runs
+        forecaster.refitAll();
+
+        // Then
+        HoltWintersModel model = forecaster.model("Boston", "HOUSE");
+        assertFalse(model.isProvisional());
+        assertEquals(YearMonth.of(2025, 5), model.lastMonth());
+        assertEquals(1, meterRegistry.get("market.forecast.refit").tag("mode", "full").timer().count());
+        assertEquals(1, meterRegistry.get("market.forecast.models").gauge().value());
+        assertEquals(List.of(new MarketModelFittedEvent("Boston", "HOUSE")), events);
+        forecaster.refitAll();
+        assertSame(model, forecaster.model("Boston", "HOUSE"));
+        assertEquals(1, events.size());
+        new MarketForecaster(new MarketSeriesStore()).model("Boston", "HOUSE");
+        assertNull(Metrics.globalRegistry.find("market.forecast.models").gauge());
+    }
+
+    @Test
+    void testStartedForecasterFitsOnItsOwnThread() throws Exception {
+        // Given
+        forecaster.start();
+
+        // When
+        forecaster.model("Boston", "HOUSE");
+
+        // Then
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (forecaster.model("Boston", "HOUSE").isProvisional() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(forecaster.model("Boston", "HOUSE").isProvisional());
+        assertEquals(List.of(new MarketModelFittedEvent("Boston", "HOUSE")), events);
+    }
+
+    @Test
+    void testNewMonthFoldedInIncrementally() {
+        // Given
+        forecaster.model("Boston", "HOUSE");
+        forecaster.refitAll();
+        HoltWintersModel may = forecaster.model("Boston", "HOUSE");
+        clock.instant = Instant.parse("2025-06-02T10:00:00Z");
+
+        // When: before the background pass the stale model still answers for June onwards
+        HoltWintersModel.Forecast stale = forecaster.forecast("Boston", "HOUSE", 1);
+        forecaster.refitAll();
+
+        // Then
+        HoltWintersModel june = forecaster.model("Boston", "HOUSE");
+        assertEquals(may.forecast(YearMonth.of(2025, 7)), stale);
+        assertEquals(YearMonth.of(2025, 6), june.lastMonth());
+        assertEquals(1, june.updatesSinceFit());
+        assertEquals(1, meterRegistry.get("market.forecast.refit").tag("mode", "incremental").timer().count());
+    }
+
+    @Test
+    void testIncrementalRefitMatchesFreshFit() {
+        // Given
+        forecaster.model("Boston", "HOUSE");
+        forecaster.refitAll();
+        MarketSeries may = new MarketSeriesStore(clock).series("Boston", "HOUSE");
+        clock.instant = Instant.parse("2025-06-02T10:00:00Z");
+        MarketSeries june = new MarketSeriesStore(clock).series("Boston", "HOUSE");
+
+        // When
+        forecaster.refitAll();
+        HoltWintersModel incremental = forecaster.model("Boston", "HOUSE");
+
+        // Then: the months both series cover are unchanged, which the incremental update relies on
+        List<MarketData> mayPoints = may.window(MarketSeriesStore.HISTORY_MONTHS);
+        List<MarketData> junePoints = june.window(MarketSeriesStore.HISTORY_MONTHS);
+        assertEquals(mayPoints.subList(1, mayPoints.size()), junePoints.subList(0, junePoints.size() - 1));
+        double[] mayPrices = prices(may);
+        double[] junePrices = prices(june);
+        // Then: the same as fitting May's history afresh and stepping through June's new point
+        HoltWintersModel replayed = HoltWintersModel.fit(mayPrices, may.lastMonth())
+                .update(new double[] {junePrices[junePrices.length - 1]});
+        assertEquals(replayed.forecast(YearMonth.of(2025, 12)), incremental.forecast(YearMonth.of(2025, 12)));
+        assertEquals(replayed.currentPrice(), incremental.currentPrice());
+        // Then: and close to a fresh search over June's window
+        HoltWintersModel fresh = HoltWintersModel.fit(junePrices, june.lastMonth());
+        HoltWintersModel.Forecast expected = fresh.forecast(YearMonth.of(2025, 7));
+        double price = incremental.forecast(YearMonth.of(2025, 7)).price();
+        assertTrue(expected.lower() <= price && price <= expected.upper(), price + " outside " + expected);
+    }
+
+    private static double[] prices(MarketSeries series) {
+        double[] prices = new double[series.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = series.averagePrice(i, i + 1);
+        }
+        return prices;
+    }
+
+    private static class MutableClock extends Clock {
+
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.propertymarketanalysis.market;
+
+import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketRollup;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketSeriesStoreTest {
+
+    private static final Clock MAY_2025 = Clock.fixed(Instant.parse("2025-05-17T10:00:00Z"), ZoneOffset.UTC);
+
+    private final MarketSeriesStore store = new MarketSeriesStore(MAY_2025);
+
+    @Test
+    void testWindowsAreSlicesOfOneSeries() {
+        // Given
+        MarketSeries series = store.series("Boston", "HOUSE");
+
+        // When
+        List<MarketData> year = series.window(12);
+        List<MarketData> fiveYears = series.window(60);
+
+        // Then
+        assertSame(series, store.series("Boston", "HOUSE"));
+        assertEquals(MarketSeriesStore.HISTORY_MONTHS + 1, series.size());
+        assertEquals(13, year.size());
+        assertEquals(61, fiveYears.size());
+        assertSame(fiveYears.get(48), year.get(0));
+        assertEquals(LocalDate.of(2025, 5, 1), year.get(12).getDate());
+        assertEquals(LocalDate.of(2020, 5, 1), fiveYears.get(0).getDate());
+        assertThrows(UnsupportedOperationException.class, () -> year.set(0, new MarketData()));
+    }
+
+    @Test
+    void testGrowthRateAndWindowAverage() {
+        // Given
+        MarketSeries series = store.series("Boston", "HOUSE");
+        List<MarketData> quarter = series.window(3);
+
+        // When
+        double growth = series.growthRate(3);
+
+        // Then
+        double first = quarter.get(0).getAveragePrice();
+        double last = quarter.get(3).getAveragePrice();
+        assertEquals((last - first) / first * 100, growth, 1e-9);
+        assertEquals(0.0, series.growthRate(0));
+        double sum = 0;
+        for (MarketData point : quarter) {
+            sum += point.getAveragePrice();
+        }
+        assertEquals(sum / 4, series.averagePrice(series.size() - 4, series.size()), 1e-6);
+    }
+
+    @Test
+    void testRollupsFollowCalendarQuartersAndYears() {
+        // Given: May 2020 .. May 2025
+        MarketSeries series = store.series("Boston", "HOUSE");
+
+        // When
+        List<MarketRollup> quarters = series.rollups(MarketSeries.Granularity.QUARTER);
+        List<MarketRollup> years = series.rollups(MarketSeries.Granularity.YEAR);
+
+        // Then: partial buckets at both ends
+        assertEquals("2020-Q2", quarters.get(0).getPeriod());
+        assertEquals(2, quarters.get(0).getMonths());
+        assertNull(quarters.get(0).getGrowthRate());
+        assertEquals("2025-Q2", quarters.get(quarters.size() - 1).getPeriod());
+        assertEquals(2, quarters.get(quarters.size() - 1).getMonths());
+        assertEquals(61, quarters.stream().mapToInt(MarketRollup::getMonths).sum());
+
+        assertEquals(6, years.size());
+        assertEquals("2020", years.get(0).getPeriod());
+        assertEquals(8, years.get(0).getMonths());
+        assertEquals(12, years.get(1).getMonths());
+        int sales = series.window(60).subList(8, 20).stream().mapToInt(MarketData::getTotalSales).sum();
+        assertEquals(sales, years.get(1).getTotalSales());
+        double previous = years.get(0).getAveragePrice();
+        assertEquals((years.get(1).getAveragePrice() - previous) / previous * 100, years.get(1).getGrowthRate(), 1e-9);
+    }
+
+    @Test
+    void testSeriesRebuiltWhenMonthRollsOver() {
+        // Given
+        MarketSeries may = store.series("Boston", "HOUSE");
+        Clock june = Clock.fixed(Instant.parse("2025-06-02T10:00:00Z"), ZoneOffset.UTC);
+
+        // When
+        MarketSeries rolled = new MarketSeriesStore(june).series("Boston", "HOUSE");
+
+        // Then
+        assertEquals(YearMonth.of(2025, 5), may.lastMonth());
+        assertEquals(YearMonth.of(2025, 6), rolled.lastMonth());
+    }
+
+    @Test
+    void testHistoryUnchangedByRollover() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.parse("2025-05-17T10:00:00Z"));
+        MarketSeriesStore rolling = new MarketSeriesStore(clock);
+        List<MarketData> may = rolling.series("Boston", "HOUSE").window(MarketSeriesStore.HISTORY_MONTHS);
+
+        // When
+        clock.instant = Instant.parse("2025-06-02T10:00:00Z");
+        MarketSeries june = rolling.series("Boston", "HOUSE");
+
+        // Then: June 2020 .. May 2025 are the same months with the same figures
+        assertEquals(YearMonth.of(2025, 6), june.lastMonth());
+        assertEquals(may.subList(1, may.size()), june.window(MarketSeriesStore.HISTORY_MONTHS).subList(0, may.size() - 1));
+    }
+
+    private static class MutableClock extends Clock {
+
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
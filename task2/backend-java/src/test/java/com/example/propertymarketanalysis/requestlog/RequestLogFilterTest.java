@@ -0,0 +1,46 @@
+package com.example.propertymarketanalysis.requestlog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogFilterTest {
+
+    @Test
+    void testStatusAndBytesWrittenAreLogged() throws Exception {
+        // Given
+        List<RequestLogEntry> written = new CopyOnWriteArrayList<>();
+        RequestLog requestLog = new RequestLog(true, 1.0, Duration.ofSeconds(1), 16, new SimpleMeterRegistry(), written::add);
+        RequestLogFilter filter = new RequestLogFilter(requestLog);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/market-analysis/trend");
+        request.setQueryString("location=Boston");
+        byte[] body = "{\"period\":\"Current Month\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/market-analysis/trend");
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_CREATED);
+            res.getOutputStream().write(body);
+        });
+        requestLog.close();
+
+        // Then
+        assertEquals(1, written.size());
+        RequestLogEntry entry = written.get(0);
+        assertEquals("GET", entry.method());
+        assertEquals("/api/market-analysis/trend", entry.endpoint());
+        assertEquals("location=Boston", entry.params());
+        assertEquals(HttpServletResponse.SC_CREATED, entry.status());
+        assertEquals(body.length, entry.responseBytes());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.propertymarketanalysis.requestlog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RequestLogEntry> written = new CopyOnWriteArrayList<>();
+    // Lets a blocked sink go even when a test fails, so close() does not wait on it forever
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RequestLog requestLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        requestLog.close();
+    }
+
+    @Test
+    void testSlowRequestsAlwaysLoggedWhenNotSampled() throws Exception {
+        // Given
+        requestLog = new RequestLog(true, 0.0, Duration.ofMillis(100), 16, meterRegistry, written::add);
+
+        // When
+        boolean fast = requestLog.record("GET", "/api/market-analysis/trend", "location=Boston", 200,
+                Duration.ofMillis(5).toNanos(), 120);
+        boolean slow = requestLog.record("GET", "/api/market-analysis/housing", "", 200,
+                Duration.ofMillis(250).toNanos(), 4096);
+        requestLog.close();
+
+        // Then
+        assertFalse(fast);
+        assertTrue(slow);
+        assertEquals(1, written.size());
+        RequestLogEntry entry = written.get(0);
+        assertEquals("/api/market-analysis/housing", entry.endpoint());
+        assertEquals(4096, entry.responseBytes());
+        assertTrue(entry.format().contains("latency_ms=250.000"));
+    }
+
+    @Test
+    void testFullBufferDropsAndCountsWithoutBlocking() throws Exception {
+        // Given: the writer is stuck on the first entry, so only two more fit in the buffer
+        CountDownLatch writing = new CountDownLatch(1);
+        requestLog = new RequestLog(true, 1.0, Duration.ofSeconds(1), 2, meterRegistry, entry -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(entry);
+        });
+        assertTrue(requestLog.record("GET", "/api/market-analysis/health", "", 200, 1000, 30));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        int accepted = 1;
+        for (int i = 1; i < 10; i++) {
+            if (requestLog.record("GET", "/api/market-analysis/health", "", 200, 1000, 30)) {
+                accepted++;
+            }
+        }
+
+        // Then
+        assertEquals(3, accepted);
+        assertEquals(7, requestLog.dropped());
+        assertEquals(7, meterRegistry.get("request.log.dropped").functionCounter().count());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.size() < accepted && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(accepted, written.size());
+    }
+}
@@ -1,14 +1,27 @@
 package com.example.propertymarketanalysis.service;
 
+import com.example.propertymarketanalysis.data.HousingDataStore;
 import com.example.propertymarketanalysis.dto.MarketAnalysisRequest;
 import com.example.propertymarketanalysis.dto.MarketAnalysisResponse;
 import com.example.propertymarketanalysis.dto.MarketData;
+import com.example.propertymarketanalysis.dto.MarketQuery;
+import com.example.propertymarketanalysis.dto.MarketQueryResult;
 import com.example.propertymarketanalysis.dto.MarketTrend;
+import com.example.propertymarketanalysis.market.MarketForecaster;
+import com.example.propertymarketanalysis.market.MarketSeriesStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,7 +31,7 @@ class MarketAnalysisServiceTest {
     
     @BeforeEach
     void setUp() {
-        marketAnalysisService = new MarketAnalysisServiceImpl();
+        marketAnalysisService = service(2, Duration.ofSeconds(5), null);
     }
     
     @Test
@@ -66,6 +79,24 @@ class MarketAnalysisServiceTest {
         assertEquals("APARTMENT", firstData.getPropertyType());
     }
     
+    @Test
+    void testGetHistoricalData_sameQuerySameSeries() {
+        // When
+        List<MarketData> first = marketAnalysisService.getHistoricalData("Boston", "APARTMENT", "6M");
+        List<MarketData> again = service(2, Duration.ofSeconds(5), null).getHistoricalData("boston", "APARTMENT", "6m");
+        List<MarketData> other = marketAnalysisService.getHistoricalData("Chicago", "APARTMENT", "6M");
+
+        // Then
+        assertEquals(first.size(), again.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getAveragePrice(), again.get(i).getAveragePrice());
+            assertEquals(first.get(i).getTotalSales(), again.get(i).getTotalSales());
+        }
+        assertNotEquals(first.get(0).getAveragePrice(), other.get(0).getAveragePrice());
+        assertEquals(marketAnalysisService.getMarketForecast("Boston", "APARTMENT", "1Y").getPercentageChange(),
+                marketAnalysisService.getMarketForecast("Boston", "APARTMENT", "1Y").getPercentageChange());
+    }
+
     @Test
     void testGetCurrentTrend() {
         // When
@@ -101,6 +132,131 @@ class MarketAnalysisServiceTest {
             assertEquals("1Y", response.getTimeframe());
         }
     }
+
+    @Test
+    void testCompareMarkets_slowLocationReportedUnavailable() {
+        // Given: one location never finishes within the deadline
+        MarketAnalysisService service = service(2, Duration.ofMillis(300), (proxy, method, args) -> {
+            if (method.getName().equals("getMarketAnalysis")
+                    && ((MarketAnalysisRequest) args[0]).getLocation().equals("Boston")) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        });
+        List<String> locations = Arrays.asList("New York", "Boston", "Chicago", "Denver");
+
+        // When
+        long start = System.nanoTime();
+        List<MarketAnalysisResponse> comparisons = service.compareMarkets(locations, "HOUSE", "1Y");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then: partial results, still in input order
+        assertTrue(elapsedMillis < 5_000);
+        assertEquals(4, comparisons.size());
+        for (int i = 0; i < locations.size(); i++) {
+            assertEquals(locations.get(i), comparisons.get(i).getLocation());
+        }
+        assertEquals(MarketAnalysisServiceImpl.UNAVAILABLE, comparisons.get(1).getMarketCondition());
+        assertNull(comparisons.get(1).getMarketData());
+        assertNotNull(comparisons.get(0).getMarketData());
+        assertNotNull(comparisons.get(2).getMarketData());
+        assertNotNull(comparisons.get(3).getMarketData());
+    }
+
+    @Test
+    void testCompareMarkets_callsThroughServiceBean() {
+        // Given: the bean other callers see, standing in for the caching proxy
+        MarketAnalysisResponse cached = new MarketAnalysisResponse();
+        List<String> called = new CopyOnWriteArrayList<>();
+        MarketAnalysisServiceImpl service = service(2, Duration.ofSeconds(5), (proxy, method, args) -> {
+            if (!method.getName().equals("getMarketAnalysis")) {
+                return null;
+            }
+            called.add(((MarketAnalysisRequest) args[0]).getLocation());
+            return cached;
+        });
+        
+        // When
+        List<MarketAnalysisResponse> comparisons = service.compareMarkets(List.of("New York", "Boston"), "HOUSE", "1Y");
+        service.stop();
+        
+        // Then
+        assertSame(cached, comparisons.get(0));
+        assertSame(cached, comparisons.get(1));
+        assertEquals(Set.of("New York", "Boston"), Set.copyOf(called));
+        assertThrows(RejectedExecutionException.class, () -> service.compareMarkets(List.of("Denver"), "HOUSE", "1Y"));
+    }
+
+    @Test
+    void testAnalyzeBatch_sharesWorkWithinMarket() {
+        // Given: overlapping queries for two markets, one repeated
+        List<MarketQuery> queries = Arrays.asList(
+                new MarketQuery("HISTORICAL", "Denver", "HOUSE", "5Y"),
+                new MarketQuery("analysis", "Denver", "HOUSE", "1Y"),
+                new MarketQuery("TREND", "Austin", null, null),
+                new MarketQuery("HISTORICAL", "Denver", "HOUSE", "1Y"),
+                new MarketQuery("TREND", "Denver", "HOUSE", null),
+                new MarketQuery("FORECAST", "Austin", "ALL", "6M"),
+                new MarketQuery("HISTORICAL", "Denver", "HOUSE", "5y"));
+        
+        // When
+        List<MarketQueryResult> results = marketAnalysisService.analyzeBatch(queries);
+        
+        // Then: in input order, with the same answers as the single-query methods
+        assertEquals(7, results.size());
+        assertEquals(Arrays.asList("HISTORICAL", "ANALYSIS", "TREND", "HISTORICAL", "TREND", "FORECAST", "HISTORICAL"),
+                results.stream().map(MarketQueryResult::getType).toList());
+        results.forEach(result -> assertNull(result.getError()));
+        assertEquals(marketAnalysisService.getHistoricalData("Denver", "HOUSE", "5Y"), results.get(0).getMarketData());
+        assertEquals(marketAnalysisService.getHistoricalData("Denver", "HOUSE", "1Y"), results.get(3).getMarketData());
+        assertEquals(marketAnalysisService.getCurrentTrend("Austin", "ALL"), results.get(2).getTrend());
+        assertEquals("ALL", results.get(2).getPropertyType());
+        assertEquals(marketAnalysisService.getMarketForecast("Austin", "ALL", "6M"), results.get(5).getTrend());
+        assertEquals(results.get(3).getMarketData(), results.get(1).getAnalysis().getMarketData());
+        // A repeated query is answered once
+        assertEquals(results.get(1).getAnalysis().getCurrentTrend(), results.get(4).getTrend());
+        assertSame(results.get(0), results.get(6));
+    }
+    
+    @Test
+    void testAnalyzeBatch_unknownTypeRejected() {
+        // Given
+        List<MarketQuery> queries = List.of(new MarketQuery("RUMOUR", "Denver", "HOUSE", "1Y"));
+        
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> marketAnalysisService.analyzeBatch(queries));
+        assertThrows(IllegalArgumentException.class,
+                () -> marketAnalysisService.analyzeBatch(List.of(new MarketQuery("TREND", null, null, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> marketAnalysisService.analyzeBatch(Arrays.asList(new MarketQuery("TREND", "Denver", null, null), null)));
+    }
+    
+    @Test
+    void testAnalyzeBatch_callsThroughServiceBean() {
+        // Given: the bean other callers see, standing in for the caching proxy
+        MarketTrend cachedTrend = new MarketTrend();
+        List<MarketData> cachedHistory = List.of(new MarketData());
+        MarketAnalysisServiceImpl service = service(2, Duration.ofSeconds(5), (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "getCurrentTrend" -> cachedTrend;
+                    case "getHistoricalData" -> cachedHistory;
+                    default -> null;
+                });
+        
+        // When
+        List<MarketQueryResult> results = service.analyzeBatch(List.of(
+                new MarketQuery("TREND", "Denver", "HOUSE", null),
+                new MarketQuery("HISTORICAL", "Austin", "HOUSE", "1Y")));
+        service.stop();
+        
+        // Then
+        assertSame(cachedTrend, results.get(0).getTrend());
+        assertSame(cachedHistory, results.get(1).getMarketData());
+    }
     
     @Test
     void testGetMarketForecast() {
@@ -134,4 +290,31 @@ class MarketAnalysisServiceTest {
         RuntimeException ex = assertThrows(RuntimeException.class, () -> marketAnalysisService.getHousingStats());
         assertTrue(ex.getMessage().toLowerCase().contains("housing"));
     }
-}
\ No newline at end of file
+
+    /**
+     * The service as Spring wires it. With {@code intercept}, the calls it makes through the
+     * service bean (compare and batch requests) go to a stand-in for the caching proxy, which
+     * offers each one to {@code intercept} and passes it on to the service when that returns null.
+     */
+    private static MarketAnalysisServiceImpl service(int compareParallelism, Duration compareTimeout,
+                                                     InvocationHandler intercept) {
+        MarketSeriesStore seriesStore = new MarketSeriesStore();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        MarketAnalysisServiceImpl service = new MarketAnalysisServiceImpl(new HousingDataStore(), seriesStore,
+                new MarketForecaster(seriesStore), compareParallelism, compareTimeout,
+                intercept == null ? null : beans.getBeanProvider(MarketAnalysisService.class));
+        if (intercept != null) {
+            beans.registerSingleton("marketAnalysisService", Proxy.newProxyInstance(
+                    MarketAnalysisService.class.getClassLoader(), new Class<?>[] {MarketAnalysisService.class},
+                    (proxy, method, args) -> {
+                        Object answer = intercept.invoke(proxy, method, args);
+                        try {
+                            return answer != null ? answer : method.invoke(service, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }));
+        }
+        return service;
+    }
+}
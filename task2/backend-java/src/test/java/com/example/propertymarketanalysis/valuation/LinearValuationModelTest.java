@@ -0,0 +1,117 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.data.HousingColumns;
+import com.example.propertymarketanalysis.dto.Housing;
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinearValuationModelTest {
+
+    /**
+     * The Python service rounds predictions to cents.
+     */
+    private static final double TOLERANCE = 0.01;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LinearValuationModel model;
+    private HousingColumns columns;
+    private List<Double> expected;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        model = LinearValuationModel.load(new ClassPathResource("model/model_info.json"), objectMapper);
+
+        // Features and task1 /predict output, including a zero lot size and extrapolated values
+        HousingColumns.Builder builder = HousingColumns.builder(16);
+        expected = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource("fixtures/valuation-reference.csv").getInputStream(), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(",");
+                builder.add(builder.size() + 1, Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                        Double.parseDouble(values[2]), Integer.parseInt(values[3]), Integer.parseInt(values[4]),
+                        Double.parseDouble(values[5]), Double.parseDouble(values[6]), 0);
+                expected.add(Double.parseDouble(values[7]));
+            }
+        }
+        columns = builder.build();
+    }
+
+    @Test
+    void testSingleScoresMatchPythonReference() {
+        for (int row = 0; row < columns.size(); row++) {
+            // Given
+            Housing housing = columns.toHousing(row);
+            PropertyFeatures features = new PropertyFeatures((double) housing.getSquareFootage(), housing.getBedrooms(),
+                    housing.getBathrooms(), housing.getYearBuilt(), housing.getLotSize(),
+                    housing.getDistanceToCityCenter(), housing.getSchoolRating());
+
+            // When & Then
+            assertEquals(expected.get(row), model.score(housing), TOLERANCE, "row " + row);
+            assertEquals(expected.get(row), model.score(features), TOLERANCE, "row " + row);
+        }
+    }
+
+    @Test
+    void testBulkScoresMatchScalarAndPythonReference() {
+        // When
+        double[] bulk = model.scoreAll(columns);
+
+        // Then: the vector kernel (when available) and single-property scoring agree exactly
+        for (int row = 0; row < columns.size(); row++) {
+            assertEquals(model.score(columns.toHousing(row)), bulk[row], "row " + row);
+            assertEquals(expected.get(row), bulk[row], TOLERANCE, "row " + row);
+        }
+    }
+
+    @Test
+    void testBulkScoresSpanBlocks() {
+        // Given: the reference rows repeated past several blocks, ending part-way through one
+        int rows = 3 * FeatureBlock.ROWS + 7;
+        HousingColumns.Builder builder = HousingColumns.builder(rows);
+        for (int row = 0; row < rows; row++) {
+            Housing housing = columns.toHousing(row % columns.size());
+            builder.add(row + 1, housing.getSquareFootage(), housing.getBedrooms(), housing.getBathrooms(),
+                    housing.getYearBuilt(), housing.getLotSize(), housing.getDistanceToCityCenter(),
+                    housing.getSchoolRating(), 0);
+        }
+        HousingColumns repeated = builder.build();
+
+        // When
+        double[] bulk = model.scoreAll(repeated);
+
+        // Then: surefire adds the incubator module, so this runs the vector kernel
+        assertTrue(LinearValuationModel.vectorized());
+        for (int row = 0; row < rows; row++) {
+            assertEquals(model.score(repeated.toHousing(row)), bulk[row], "row " + row);
+        }
+    }
+
+    @Test
+    void testMissingModelParameterRejected() throws IOException {
+        // Given
+        ObjectNode info = (ObjectNode) objectMapper.readTree(new ClassPathResource("model/model_info.json").getInputStream());
+        info.remove("feature_scales");
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> LinearValuationModel.fromModelInfo(info));
+        assertTrue(ex.getMessage().contains("lot_size"));
+        assertThrows(IllegalArgumentException.class, () -> model.score(new Housing()));
+    }
+}
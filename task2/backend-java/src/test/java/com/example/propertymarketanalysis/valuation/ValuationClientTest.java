@@ -0,0 +1,190 @@
+package com.example.propertymarketanalysis.valuation;
+
+import com.example.propertymarketanalysis.dto.PropertyFeatures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValuationClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-05-17T10:00:00Z"));
+    private volatile int status = 200;
+    private HttpServer server;
+    private URI modelUrl;
+    private ValuationClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub of the task1 /predict endpoint: price = 100 * square_footage
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/predict", this::predict);
+        server.start();
+        modelUrl = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        client = client(Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testConcurrentEstimatesShareOneModelCall() {
+        // Given: a window that never ends by itself, so the batch goes out when flushed
+        client.close();
+        client = client(Duration.ofHours(1));
+        List<CompletableFuture<Double>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            futures.add(client.estimate(features(1000 + i)));
+        }
+        futures.add(client.estimate(features(1001)));
+        assertTrue(batchSizes.isEmpty());
+        client.flush();
+
+        // Then
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(100.0 * (1000 + i), futures.get(i - 1).join());
+        }
+        assertSame(futures.get(0), futures.get(5));
+        assertEquals(List.of(5), batchSizes);
+    }
+
+    @Test
+    void testFullBatchIsSentWithoutWaitingAndResultsAreCached() {
+        // Given
+        List<PropertyFeatures> properties = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            properties.add(features(2000 + i));
+        }
+
+        // When
+        List<Double> first = client.estimateAll(properties);
+        List<Double> again = client.estimateAll(List.of(features(2003), features(2003.0)));
+
+        // Then
+        assertEquals(12, first.size());
+        assertEquals(200_300.0, first.get(3));
+        assertEquals(List.of(200_300.0, 200_300.0), again);
+        // The full batch goes out at once, the rest after the window; either call may land first
+        assertEquals(List.of(4, 8), batchSizes.stream().sorted().toList());
+    }
+
+    @Test
+    void testCircuitOpensAfterRepeatedFailures() {
+        // Given
+        status = 500;
+
+        // When: two failed calls reach the threshold
+        assertThrows(ValuationUnavailableException.class, () -> client.estimateAll(List.of(features(1))));
+        assertThrows(ValuationUnavailableException.class, () -> client.estimateAll(List.of(features(2))));
+        status = 200;
+        CompletionException rejected = assertThrows(CompletionException.class, () -> client.estimate(features(3)).join());
+
+        // Then: the open circuit fails fast without calling the model
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        assertInstanceOf(ValuationUnavailableException.class, rejected.getCause());
+        assertEquals(2, batchSizes.size());
+    }
+
+    @Test
+    void testTrialCallClosesCircuitAfterOpenDuration() {
+        // Given: the circuit opened by two failures
+        status = 500;
+        assertThrows(ValuationUnavailableException.class, () -> client.estimateAll(List.of(features(1))));
+        assertThrows(ValuationUnavailableException.class, () -> client.estimateAll(List.of(features(2))));
+        status = 200;
+
+        // When: the open duration has passed
+        clock.instant = clock.instant.plus(Duration.ofMinutes(1));
+        List<Double> prices = client.estimateAll(List.of(features(3)));
+
+        // Then: the trial call went through and closed the circuit
+        assertEquals(List.of(300.0), prices);
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+        assertEquals(List.of(400.0), client.estimateAll(List.of(features(4))));
+    }
+
+    @Test
+    void testMissingFeatureRejected() {
+        // Given
+        PropertyFeatures incomplete = features(1500);
+        incomplete.setBedrooms(null);
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> client.estimate(incomplete));
+        assertTrue(ex.getMessage().contains("bedrooms"));
+        assertTrue(batchSizes.isEmpty());
+    }
+
+    private void predict(HttpExchange exchange) throws IOException {
+        JsonNode properties = objectMapper.readTree(exchange.getRequestBody());
+        batchSizes.add(properties.size());
+        StringBuilder body = new StringBuilder("{\"predictions\":[");
+        for (int i = 0; i < properties.size(); i++) {
+            body.append(i > 0 ? "," : "").append(100 * properties.get(i).get("square_footage").asDouble());
+        }
+        byte[] bytes = body.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private ValuationClient client(Duration batchWindow) {
+        return new ValuationClient(objectMapper, new ValuationClient.Settings(modelUrl, batchWindow, 8,
+                Duration.ofSeconds(1), Duration.ofSeconds(2), 2, Duration.ofMinutes(1), "maximumSize=100"), clock);
+    }
+
+    private static PropertyFeatures features(double squareFootage) {
+        return new PropertyFeatures(squareFootage, 3, 2.0, 1995, 8000, 5.5, 8.0);
+    }
+
+    private static class MutableClock extends Clock {
+
+        Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}